@@ -36,6 +36,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import uk.ac.ebi.eva.commons.core.models.StudyType;
 import uk.ac.ebi.eva.lib.metadata.dgva.ArchiveDgvaDBAdaptor;
 import uk.ac.ebi.eva.lib.metadata.dgva.StudyDgvaDBAdaptor;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.models.VariantStudy;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
@@ -43,6 +44,7 @@ import uk.ac.ebi.eva.lib.utils.QueryResult;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -94,21 +96,26 @@ public class ArchiveWSServerTest {
 
         Map<String, Long> svStudiesGroupedBySpeciesName = Stream.of(svStudy1, svStudy2, svStudy3)
                                                                 .collect(Collectors.groupingBy(VariantStudy::getSpeciesCommonName, Collectors.counting()));
-        given(archiveDgvaDBAdaptor.countStudiesPerSpecies(anyObject()))
-                .willReturn(encapsulateInQueryResult(svStudiesGroupedBySpeciesName.entrySet().toArray()));
 
         Map<String, Long> svStudiesGroupedByStudyType = Stream.of(svStudy1, svStudy2, svStudy3)
                                                               .map(s -> s.getType().toString())
                                                               .collect(Collectors.groupingBy(Function.identity(),
                                                                                              Collectors.counting()));
-        given(archiveDgvaDBAdaptor.countStudiesPerType(anyObject()))
-                .willReturn(encapsulateInQueryResult(svStudiesGroupedByStudyType.entrySet().toArray()));
+        given(archiveDgvaDBAdaptor.countStudiesPerSpeciesAndType(anyObject()))
+                .willReturn(encapsulateCountsInQueryResult(svStudiesGroupedBySpeciesName,
+                                                           svStudiesGroupedByStudyType));
     }
 
     private <T> QueryResult<T> encapsulateInQueryResult(T... results) {
         return new QueryResult<>(null, 0, results.length, results.length, null, null, Arrays.asList(results));
     }
 
+    private QueryResult<SpeciesAndTypeCounts> encapsulateCountsInQueryResult(Map<String, Long> speciesCounts,
+                                                                             Map<String, Long> typeCounts) {
+        return encapsulateInQueryResult(new SpeciesAndTypeCounts(new ArrayList<>(speciesCounts.entrySet()),
+                                                                 new ArrayList<>(typeCounts.entrySet())));
+    }
+
     @Test
     public void testGetStudies() throws URISyntaxException {
         String url = "/v1/meta/studies/all";
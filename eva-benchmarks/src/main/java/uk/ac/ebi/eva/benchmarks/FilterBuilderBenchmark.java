@@ -0,0 +1,87 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import uk.ac.ebi.eva.commons.mongodb.filter.FilterBuilder;
+import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
+import uk.ac.ebi.eva.lib.eva_utils.EvaproDbUtils;
+import uk.ac.ebi.eva.lib.utils.QueryOptions;
+import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the filters of a request: the MongoDB filters of the variant endpoints, and the JPA specification
+ * of the species and type filters of the study endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBuilderBenchmark {
+
+    private List<String> studies;
+
+    private List<String> consequenceTypes;
+
+    private QueryOptions studyQueryOptions;
+
+    @Setup
+    public void setUp() throws IOException {
+        studies = VariantFixtures.getStudyIds(VariantFixtures.loadVariants());
+        consequenceTypes = Arrays.asList("SO:0001566", "SO:0001631", "SO:0001632");
+
+        studyQueryOptions = new QueryOptions();
+        studyQueryOptions.put(QueryOptionsConstants.SPECIES, Arrays.asList("Human", "Bos taurus"));
+        studyQueryOptions.put(QueryOptionsConstants.TYPE, Arrays.asList("Exome", "Whole genome sequencing"));
+    }
+
+    @Benchmark
+    public List<VariantRepositoryFilter> buildVariantFilters() {
+        return new FilterBuilder().getVariantEntityRepositoryFilters("<0.2", ">0.5", "<0.1", studies,
+                                                                     consequenceTypes);
+    }
+
+    @Benchmark
+    public List<VariantRepositoryFilter> buildStudyFilters() {
+        return new FilterBuilder().withStudies(studies).build();
+    }
+
+    @Benchmark
+    public Specification buildSpeciesAndTypeFilters() {
+        return EvaproDbUtils.getSpeciesAndTypeFilters(studyQueryOptions);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.core.models.VariantSource;
+import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.lib.models.ga4gh.GAVariant;
+import uk.ac.ebi.eva.lib.models.ga4gh.GAVariantFactory;
+import uk.ac.ebi.eva.lib.models.ga4gh.GAVariantSet;
+import uk.ac.ebi.eva.lib.models.ga4gh.GAVariantSetFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of variants and files to the GA4GH models, including the parsing of the VCF headers of the files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GA4GHFactoryBenchmark {
+
+    private List<VariantWithSamplesAndAnnotation> variants;
+
+    private List<VariantSource> variantSources;
+
+    @Setup
+    public void setUp() throws IOException {
+        variants = VariantFixtures.loadVariants();
+        variantSources = VariantFixtures.buildVariantSources(variants);
+    }
+
+    @Benchmark
+    public List<GAVariant> createVariants() {
+        return GAVariantFactory.create(variants);
+    }
+
+    @Benchmark
+    public List<GAVariantSet> createVariantSets() {
+        return GAVariantSetFactory.create(variantSources);
+    }
+}
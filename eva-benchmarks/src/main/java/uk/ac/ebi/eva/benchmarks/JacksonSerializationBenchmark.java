@@ -0,0 +1,85 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
+import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.lib.utils.QueryResponse;
+import uk.ac.ebi.eva.lib.utils.QueryResult;
+import uk.ac.ebi.eva.server.configuration.JacksonConfiguration;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the responses with the ObjectMapper of the web services, which has mixins for most of the models.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private List<Variant> coreVariants;
+
+    private QueryResponse<QueryResult<VariantWithSamplesAndAnnotation>> queryResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new JacksonConfiguration().objectMapper();
+
+        List<VariantWithSamplesAndAnnotation> variants = VariantFixtures.loadVariants();
+        coreVariants = VariantFixtures.toCoreVariants(variants);
+
+        QueryResult<VariantWithSamplesAndAnnotation> queryResult = new QueryResult<>(null, 0, variants.size(),
+                                                                                      variants.size(), null, null,
+                                                                                      variants);
+        queryResponse = new QueryResponse<>();
+        queryResponse.setResponse(Collections.singletonList(queryResult));
+    }
+
+    @Benchmark
+    public byte[] serializeCoreVariants() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(coreVariants);
+    }
+
+    @Benchmark
+    public byte[] serializeQueryResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(queryResponse);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uk.ac.ebi.eva.commons.core.models.Aggregation;
+import uk.ac.ebi.eva.commons.core.models.StudyType;
+import uk.ac.ebi.eva.commons.core.models.VariantSource;
+import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
+import uk.ac.ebi.eva.commons.core.models.ws.VariantSourceEntryWithSampleNames;
+import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds the inputs of the benchmarks from the variants used in the eva-server tests, so they are measured with the
+ * same kind of data the web services return.
+ */
+public class VariantFixtures {
+
+    private static final String VARIANTS_FILE = "/test-data/variants.json";
+
+    private static final String VARIANTS_COLLECTION = "testVariants";
+
+    private VariantFixtures() {
+    }
+
+    /**
+     * Reads the variant documents as they are stored in MongoDB, with their files and their attributes.
+     */
+    public static List<VariantWithSamplesAndAnnotation> loadVariants() throws IOException {
+        JsonNode variantsFile;
+        try (InputStream inputStream = VariantFixtures.class.getResourceAsStream(VARIANTS_FILE)) {
+            if (inputStream == null) {
+                throw new IOException("Fixture " + VARIANTS_FILE + " not found in the classpath");
+            }
+            variantsFile = new ObjectMapper().readTree(inputStream);
+        }
+
+        List<VariantWithSamplesAndAnnotation> variants = new ArrayList<>();
+        for (JsonNode document : variantsFile.get(VARIANTS_COLLECTION)) {
+            Set<String> ids = new LinkedHashSet<>();
+            document.path("ids").forEach(id -> ids.add(id.asText()));
+
+            VariantWithSamplesAndAnnotation variant = new VariantWithSamplesAndAnnotation(
+                    document.get("chr").asText(), document.get("start").asLong(), document.get("end").asLong(),
+                    document.get("ref").asText(), document.get("alt").asText(),
+                    ids.isEmpty() ? null : ids.iterator().next());
+            variant.setIds(ids);
+
+            for (JsonNode file : document.path("files")) {
+                Map<String, String> attributes = new LinkedHashMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = file.path("attrs").fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    attributes.put(field.getKey(), field.getValue().asText());
+                }
+                variant.addSourceEntry(new VariantSourceEntryWithSampleNames(file.get("fid").asText(),
+                                                                             file.get("sid").asText(), null, null,
+                                                                             null, attributes, null));
+            }
+            variants.add(variant);
+        }
+        return variants;
+    }
+
+    /**
+     * Same conversion as in RegionWSServerV2, which only returns the core fields of the variants.
+     */
+    public static List<Variant> toCoreVariants(List<VariantWithSamplesAndAnnotation> variants) {
+        List<Variant> coreVariants = new ArrayList<>();
+        for (VariantWithSamplesAndAnnotation variantEntity : variants) {
+            Variant variant = new Variant(variantEntity.getChromosome(), variantEntity.getStart(),
+                                          variantEntity.getEnd(), variantEntity.getReference(),
+                                          variantEntity.getAlternate());
+            variant.setIds(variantEntity.getIds());
+            variant.setMainId(variantEntity.getMainId());
+            coreVariants.add(variant);
+        }
+        return coreVariants;
+    }
+
+    /**
+     * One source per file of the variants. The fixtures have no VCF headers, so every source gets a header with an
+     * INFO line for each attribute found in its file.
+     */
+    public static List<VariantSource> buildVariantSources(List<VariantWithSamplesAndAnnotation> variants) {
+        Map<String, Set<String>> attributesByFile = new LinkedHashMap<>();
+        Map<String, String> studyByFile = new LinkedHashMap<>();
+        for (VariantWithSamplesAndAnnotation variant : variants) {
+            for (VariantSourceEntryWithSampleNames sourceEntry : variant.getSourceEntries()) {
+                attributesByFile.computeIfAbsent(sourceEntry.getFileId(), fileId -> new TreeSet<>())
+                                .addAll(sourceEntry.getAttributes().keySet());
+                studyByFile.put(sourceEntry.getFileId(), sourceEntry.getStudyId());
+            }
+        }
+
+        List<VariantSource> sources = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> file : attributesByFile.entrySet()) {
+            StringBuilder header = new StringBuilder("##fileformat=VCFv4.1\n");
+            header.append("##reference=GRCh37\n");
+            for (String attribute : file.getValue()) {
+                header.append("##INFO=<ID=").append(attribute).append(",Number=.,Type=String,Description=\"")
+                      .append("Value of the ").append(attribute).append(" attribute, as found in the fixtures\">\n");
+            }
+            header.append("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+
+            Map<String, Object> metadata = Collections.singletonMap("header", header.toString());
+            String studyId = studyByFile.get(file.getKey());
+            sources.add(new VariantSource(file.getKey(), file.getKey() + ".vcf.gz", studyId, studyId,
+                                          StudyType.CASE_CONTROL, Aggregation.NONE, null, Collections.emptyMap(),
+                                          metadata, null));
+        }
+        return sources;
+    }
+
+    /**
+     * @return the given number of regions around the variants, as in the regionId of the region endpoints
+     */
+    public static String buildRegions(List<VariantWithSamplesAndAnnotation> variants, int numberOfRegions) {
+        StringBuilder regions = new StringBuilder();
+        for (int i = 0; i < numberOfRegions; i++) {
+            VariantWithSamplesAndAnnotation variant = variants.get(i % variants.size());
+            long offset = (long) (i / variants.size()) * 1000;
+            if (regions.length() > 0) {
+                regions.append(",");
+            }
+            regions.append(variant.getChromosome()).append(":").append(variant.getStart() + offset).append("-")
+                   .append(variant.getEnd() + offset + 100);
+        }
+        return regions.toString();
+    }
+
+    /**
+     * @return the studies of the files of the variants
+     */
+    public static List<String> getStudyIds(List<VariantWithSamplesAndAnnotation> variants) {
+        Set<String> studyIds = new LinkedHashSet<>();
+        for (VariantWithSamplesAndAnnotation variant : variants) {
+            for (VariantSourceEntryWithSampleNames sourceEntry : variant.getSourceEntries()) {
+                studyIds.add(sourceEntry.getStudyId());
+            }
+        }
+        return new ArrayList<>(studyIds);
+    }
+}
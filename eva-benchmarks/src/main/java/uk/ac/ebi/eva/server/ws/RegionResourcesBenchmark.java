@@ -0,0 +1,131 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server.ws;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Resource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import uk.ac.ebi.eva.benchmarks.VariantFixtures;
+import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of the HATEOAS links of every variant in a page of /v2/regions/{regionId}/variants.
+ *
+ * The links are built from the current request, so every benchmark thread has its own request, like the threads of
+ * the web server. The benchmark is in the package of the web service to call its package-private method directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegionResourcesBenchmark {
+
+    private static final String SERVER_NAME = "www.ebi.ac.uk";
+
+    private static final String CONTEXT_PATH = "/eva/webservices/rest";
+
+    private static final String REQUEST_URI = CONTEXT_PATH + "/v2/regions/20:60000-70000/variants";
+
+    private RegionWSServerV2 regionWSServer;
+
+    private List<Variant> variants;
+
+    @Setup
+    public void setUp() throws Exception {
+        variants = VariantFixtures.toCoreVariants(VariantFixtures.loadVariants());
+        regionWSServer = new RegionWSServerV2();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(buildRequest()));
+    }
+
+    /**
+     * Request with only what the link builders read: the URL and no headers nor attributes.
+     */
+    private static HttpServletRequest buildRequest() {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMethod":
+                            return "GET";
+                        case "getScheme":
+                            return "http";
+                        case "getServerName":
+                            return SERVER_NAME;
+                        case "getServerPort":
+                            return 80;
+                        case "getContextPath":
+                            return CONTEXT_PATH;
+                        case "getServletPath":
+                            return "";
+                        case "getRequestURI":
+                            return REQUEST_URI;
+                        case "getRequestURL":
+                            return new StringBuffer("http://" + SERVER_NAME + REQUEST_URI);
+                        case "getHeaders":
+                        case "getHeaderNames":
+                        case "getAttributeNames":
+                            return Collections.emptyEnumeration();
+                        default:
+                            // Lengths and numeric headers are unknown, like in a request without body nor headers
+                            Class<?> returnType = method.getReturnType();
+                            if (returnType == boolean.class) {
+                                return false;
+                            } else if (returnType == int.class) {
+                                return -1;
+                            } else if (returnType == long.class) {
+                                return -1L;
+                            }
+                            return null;
+                    }
+                });
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * The response is only an argument of the methods whose links are built, which are never invoked.
+     */
+    @Benchmark
+    public List<Resource> getResources() {
+        return regionWSServer.getResources(variants, "hsapiens", "grch37", null);
+    }
+}
@@ -39,6 +39,45 @@ public class SpringDataMongoDbProperties {
 
     private String readPreference;
 
+    /**
+     * Maximum number of connections to each server. The connection pool options are left to the driver defaults
+     * when not set.
+     */
+    private Integer connectionsPerHost;
+
+    /**
+     * Multiplied by connectionsPerHost gives the maximum number of threads waiting for a connection.
+     */
+    private Integer threadsAllowedToBlockForConnectionMultiplier;
+
+    /**
+     * Milliseconds that a thread waits for a connection before failing.
+     */
+    private Integer maxWaitTime;
+
+    private Integer connectTimeout;
+
+    private Integer socketTimeout;
+
+    private Integer serverSelectionTimeout;
+
+    /**
+     * Milliseconds that a query of a web service can run in the server before being killed, unless the endpoint
+     * has its own limit. No limit if not set.
+     */
+    private Long maxTimeMs;
+
+    /**
+     * Comma-separated wire compressors offered to the server, in order of preference: zlib or snappy (which needs
+     * snappy-java in the classpath). Only those also enabled in the server are used. Empty to not compress.
+     */
+    private String compressors = "zlib";
+
+    /**
+     * Read concern of the queries, unless the endpoint has its own: local, majority, linearizable or snapshot.
+     */
+    private String readConcern = "majority";
+
     public String getDatabase() {
         return database;
     }
@@ -94,4 +133,76 @@ public class SpringDataMongoDbProperties {
     public void setReadPreference(String readPreference) {
         this.readPreference = readPreference;
     }
+
+    public Integer getConnectionsPerHost() {
+        return connectionsPerHost;
+    }
+
+    public void setConnectionsPerHost(Integer connectionsPerHost) {
+        this.connectionsPerHost = connectionsPerHost;
+    }
+
+    public Integer getThreadsAllowedToBlockForConnectionMultiplier() {
+        return threadsAllowedToBlockForConnectionMultiplier;
+    }
+
+    public void setThreadsAllowedToBlockForConnectionMultiplier(Integer threadsAllowedToBlockForConnectionMultiplier) {
+        this.threadsAllowedToBlockForConnectionMultiplier = threadsAllowedToBlockForConnectionMultiplier;
+    }
+
+    public Integer getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(Integer maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Integer connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Integer getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Integer socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public Integer getServerSelectionTimeout() {
+        return serverSelectionTimeout;
+    }
+
+    public void setServerSelectionTimeout(Integer serverSelectionTimeout) {
+        this.serverSelectionTimeout = serverSelectionTimeout;
+    }
+
+    public Long getMaxTimeMs() {
+        return maxTimeMs;
+    }
+
+    public void setMaxTimeMs(Long maxTimeMs) {
+        this.maxTimeMs = maxTimeMs;
+    }
+
+    public String getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(String compressors) {
+        this.compressors = compressors;
+    }
+
+    public String getReadConcern() {
+        return readConcern;
+    }
+
+    public void setReadConcern(String readConcern) {
+        this.readConcern = readConcern;
+    }
 }
@@ -18,8 +18,10 @@ package uk.ac.ebi.eva.lib.eva_utils;
 import com.mongodb.AuthenticationMechanism;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoCompressor;
 import com.mongodb.MongoCredential;
 import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
 import com.mongodb.ReadPreference;
 import com.mongodb.ServerAddress;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +53,9 @@ public class DBAdaptorConnector {
      *                   - eva.mongo.passwd
      *                   - eva.mongo.read-preference string, "secondaryPreferred" if unspecified. one of:
      *                          [primary, primaryPreferred, secondary, secondaryPreferred, nearest]
+     *                   - read concern, "majority" if unspecified. one of: [local, majority, linearizable, snapshot]
+     *                   - connection pool, timeouts and wire compressors, driver defaults if unspecified (except for
+     *                          compressors, zlib if unspecified)
      * @return MongoClient with given credentials
      * @throws UnknownHostException
      */
@@ -72,8 +77,10 @@ public class DBAdaptorConnector {
         String readPreference = springDataMongoDbProperties.getReadPreference();
         readPreference = readPreference == null || readPreference.isEmpty()? "secondaryPreferred" : readPreference;
 
-        MongoClientOptions options = MongoClientOptions.builder()
-                .readPreference(ReadPreference.valueOf(readPreference)).readConcern(ReadConcern.MAJORITY).build();
+        MongoClientOptions options = getMongoClientOptions(springDataMongoDbProperties)
+                .readPreference(ReadPreference.valueOf(readPreference))
+                .readConcern(getReadConcern(springDataMongoDbProperties.getReadConcern()))
+                .build();
 
         List<MongoCredential> mongoCredentialList = new ArrayList<>();
         String authenticationDb = springDataMongoDbProperties.getAuthenticationDatabase();
@@ -94,7 +101,78 @@ public class DBAdaptorConnector {
         return new MongoClient(servers, mongoCredentialList, options);
     }
 
+    /**
+     * @return options with the connection pool, timeouts and compressors in the properties, or the driver defaults
+     * for those not set
+     */
+    private static MongoClientOptions.Builder getMongoClientOptions(
+            SpringDataMongoDbProperties springDataMongoDbProperties) {
+        MongoClientOptions.Builder builder = MongoClientOptions.builder();
+        if (springDataMongoDbProperties.getConnectionsPerHost() != null) {
+            builder.connectionsPerHost(springDataMongoDbProperties.getConnectionsPerHost());
+        }
+        if (springDataMongoDbProperties.getThreadsAllowedToBlockForConnectionMultiplier() != null) {
+            builder.threadsAllowedToBlockForConnectionMultiplier(
+                    springDataMongoDbProperties.getThreadsAllowedToBlockForConnectionMultiplier());
+        }
+        if (springDataMongoDbProperties.getMaxWaitTime() != null) {
+            builder.maxWaitTime(springDataMongoDbProperties.getMaxWaitTime());
+        }
+        if (springDataMongoDbProperties.getConnectTimeout() != null) {
+            builder.connectTimeout(springDataMongoDbProperties.getConnectTimeout());
+        }
+        if (springDataMongoDbProperties.getSocketTimeout() != null) {
+            builder.socketTimeout(springDataMongoDbProperties.getSocketTimeout());
+        }
+        if (springDataMongoDbProperties.getServerSelectionTimeout() != null) {
+            builder.serverSelectionTimeout(springDataMongoDbProperties.getServerSelectionTimeout());
+        }
+        builder.compressorList(getCompressors(springDataMongoDbProperties.getCompressors()));
+        return builder;
+    }
+
+    /**
+     * The "available" level is not supported by this version of the driver, but on an unsharded replica set it reads
+     * the same as "local".
+     *
+     * @param readConcernLevel one of local, majority, linearizable or snapshot
+     * @return the read concern with the given level, or the default one of the server if the level is empty
+     * @throws IllegalArgumentException if the level is unknown
+     */
+    public static ReadConcern getReadConcern(String readConcernLevel) {
+        if (readConcernLevel == null || readConcernLevel.trim().isEmpty()) {
+            return ReadConcern.DEFAULT;
+        }
+        return new ReadConcern(ReadConcernLevel.fromString(readConcernLevel.trim()));
+    }
+
+    private static List<MongoCompressor> getCompressors(String compressorNames) {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        if (compressorNames == null) {
+            return compressors;
+        }
+        for (String compressorName : compressorNames.split(",")) {
+            switch (compressorName.trim().toLowerCase()) {
+                case "":
+                    break;
+                case "zlib":
+                    compressors.add(MongoCompressor.createZlibCompressor());
+                    break;
+                case "snappy":
+                    compressors.add(MongoCompressor.createSnappyCompressor());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown MongoDB compressor: " + compressorName);
+            }
+        }
+        return compressors;
+    }
+
     public static String getDBName(String species) {
         return "eva_" + species;
     }
+
+    public static String getDBName(String species, String assembly) {
+        return getDBName(species + "_" + assembly);
+    }
 }
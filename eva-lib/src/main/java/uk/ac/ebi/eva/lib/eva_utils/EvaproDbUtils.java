@@ -52,6 +52,11 @@ public class EvaproDbUtils {
         }
     }
 
+    /**
+     * Species must be equal to the common or scientific name of the study, while types can be any part of its
+     * experiment type. Every type is a single LIKE '%type%' condition, which the trigram index of the experiment type
+     * in study_browser.sql can answer without scanning the view.
+     */
     public static Specification getSpeciesAndTypeFilters(QueryOptions queryOptions) {
         if (!queryOptions.containsKey(QueryOptionsConstants.SPECIES) && !queryOptions.containsKey(QueryOptionsConstants.TYPE)) {
             return null;
@@ -66,11 +71,12 @@ public class EvaproDbUtils {
 
         Specification typeSpecifications = null;
         if (queryOptions.containsKey(QueryOptionsConstants.TYPE)) {
-            Object[] types = queryOptions.getAsStringList(QueryOptionsConstants.TYPE).toArray(new Object[]{});
-            typeSpecifications = where(GenericSpecifications.in(EvaStudyBrowserRepository.EXPERIMENT_TYPE, types));
-            for (Object type : types) {
-                typeSpecifications = typeSpecifications.or(
-                        GenericSpecifications.like(EvaStudyBrowserRepository.EXPERIMENT_TYPE, "%" + type + "%"));
+            // An exact match is also a match of a part, so there is no need for a separate IN condition
+            for (String type : queryOptions.getAsStringList(QueryOptionsConstants.TYPE)) {
+                Specification typeSpecification = GenericSpecifications.contains(
+                        EvaStudyBrowserRepository.EXPERIMENT_TYPE, type);
+                typeSpecifications = typeSpecifications == null ? where(typeSpecification)
+                                                                : typeSpecifications.or(typeSpecification);
             }
         }
 
@@ -0,0 +1,62 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.lib.eva_utils;
+
+import com.mongodb.ReadConcern;
+
+/**
+ * Options of the MongoDB queries made by the current thread, selected for each request like the database in
+ * MultiMongoDbFactory.
+ *
+ * maxTimeMs is the time that a query can run in the server before being killed. Queries made without it, like the ones
+ * of background tasks, have no limit.
+ *
+ * readConcern replaces the one of the MongoClient in the databases returned by MultiMongoDbFactory.
+ */
+public class MongoQueryContext {
+
+    private static final ThreadLocal<Long> maxTimeMs = new ThreadLocal<>();
+
+    private static final ThreadLocal<ReadConcern> readConcern = new ThreadLocal<>();
+
+    public static void setMaxTimeMsForCurrentThread(Long maxTimeMs) {
+        MongoQueryContext.maxTimeMs.set(maxTimeMs);
+    }
+
+    public static Long getMaxTimeMsForCurrentThread() {
+        return maxTimeMs.get();
+    }
+
+    public static void clearMaxTimeMsForCurrentThread() {
+        maxTimeMs.remove();
+    }
+
+    public static void setReadConcernForCurrentThread(ReadConcern readConcern) {
+        MongoQueryContext.readConcern.set(readConcern);
+    }
+
+    public static ReadConcern getReadConcernForCurrentThread() {
+        return readConcern.get();
+    }
+
+    public static void clearReadConcernForCurrentThread() {
+        readConcern.remove();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.lib.eva_utils;
+
+import com.mongodb.ReadConcern;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Makes tasks run against the same database that was selected in MultiMongoDbFactory by the thread that submitted
+ * them, and with the same MongoQueryContext options.
+ *
+ * The values that the worker thread had selected before are restored when the task finishes. That way no stale
+ * value is left in pooled threads, and nothing is lost if the executor runs the task in the submitting thread.
+ */
+public class MultiMongoDbContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String databaseName = MultiMongoDbFactory.getDatabaseNameForCurrentThread();
+        Long maxTimeMs = MongoQueryContext.getMaxTimeMsForCurrentThread();
+        ReadConcern readConcern = MongoQueryContext.getReadConcernForCurrentThread();
+        return () -> {
+            String previousDatabaseName = MultiMongoDbFactory.getDatabaseNameForCurrentThread();
+            Long previousMaxTimeMs = MongoQueryContext.getMaxTimeMsForCurrentThread();
+            ReadConcern previousReadConcern = MongoQueryContext.getReadConcernForCurrentThread();
+            setOrClearDatabaseName(databaseName);
+            setOrClearMaxTimeMs(maxTimeMs);
+            setOrClearReadConcern(readConcern);
+            try {
+                runnable.run();
+            } finally {
+                setOrClearDatabaseName(previousDatabaseName);
+                setOrClearMaxTimeMs(previousMaxTimeMs);
+                setOrClearReadConcern(previousReadConcern);
+            }
+        };
+    }
+
+    private static void setOrClearDatabaseName(String databaseName) {
+        if (databaseName == null) {
+            MultiMongoDbFactory.clearDatabaseNameForCurrentThread();
+        } else {
+            MultiMongoDbFactory.setDatabaseNameForCurrentThread(databaseName);
+        }
+    }
+
+    private static void setOrClearMaxTimeMs(Long maxTimeMs) {
+        if (maxTimeMs == null) {
+            MongoQueryContext.clearMaxTimeMsForCurrentThread();
+        } else {
+            MongoQueryContext.setMaxTimeMsForCurrentThread(maxTimeMs);
+        }
+    }
+
+    private static void setOrClearReadConcern(ReadConcern readConcern) {
+        if (readConcern == null) {
+            MongoQueryContext.clearReadConcernForCurrentThread();
+        } else {
+            MongoQueryContext.setReadConcernForCurrentThread(readConcern);
+        }
+    }
+}
@@ -16,11 +16,15 @@
 package uk.ac.ebi.eva.lib.eva_utils;
 
 import com.mongodb.MongoClient;
+import com.mongodb.ReadConcern;
 import com.mongodb.client.MongoDatabase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Simplified version of https://github.com/Loki-Afro/multi-tenant-spring-mongodb/blob/master/src/main/java/com/github/zarathustra/mongo/MultiTenantMongoDbFactory.java
  *
@@ -37,9 +41,21 @@ public class MultiMongoDbFactory extends SimpleMongoDbFactory {
 
     protected static Logger logger = LoggerFactory.getLogger(MultiMongoDbFactory.class);
 
+    /**
+     * Species databases are few, but the names come from requests, so the cache is bounded to not grow with invalid
+     * ones. Databases over the limit still work, they just aren't cached.
+     */
+    private static final int MAX_CACHED_DATABASES = 256;
+
     private final String defaultName;
     private static final ThreadLocal<String> dbName = new ThreadLocal<>();
 
+    private final ConcurrentHashMap<String, MongoDatabase> databases = new ConcurrentHashMap<>();
+
+    private final LongAdder databaseCacheHits = new LongAdder();
+
+    private final LongAdder databaseCacheMisses = new LongAdder();
+
     public MultiMongoDbFactory(final MongoClient mongo, final String defaultDatabaseName) {
         super(mongo, defaultDatabaseName);
         logger.debug("Instantiating " + MultiMongoDbFactory.class.getName() + " with default database name: " + defaultDatabaseName);
@@ -52,10 +68,17 @@ public class MultiMongoDbFactory extends SimpleMongoDbFactory {
      * @param databaseName the DB that will be used next time someone does "mongoDbFactory.getDB()" (note empty parameter)
      */
     public static void setDatabaseNameForCurrentThread(final String databaseName) {
-        logger.debug("Switching to database: " + databaseName);
+        logger.debug("Switching to database: {}", databaseName);
         dbName.set(databaseName);
     }
 
+    /**
+     * @return the DB selected for the current thread, or null if none was selected and the default one is used
+     */
+    public static String getDatabaseNameForCurrentThread() {
+        return dbName.get();
+    }
+
     public static void clearDatabaseNameForCurrentThread() {
         if (logger.isDebugEnabled()) {
             logger.debug("Removing database [" + dbName.get() + "]");
@@ -63,12 +86,46 @@ public class MultiMongoDbFactory extends SimpleMongoDbFactory {
         dbName.remove();
     }
 
+    /**
+     * The database handles are cached by name, so after the first use of a database this is only a map lookup.
+     *
+     * The database uses the read concern selected in MongoQueryContext for the current thread, if any.
+     */
     @Override
     public MongoDatabase getDb() {
+        MongoDatabase database = getCachedDb();
+        ReadConcern readConcern = MongoQueryContext.getReadConcernForCurrentThread();
+        return readConcern == null ? database : database.withReadConcern(readConcern);
+    }
+
+    private MongoDatabase getCachedDb() {
         final String tlName = dbName.get();
         final String dbToUse = (tlName != null ? tlName : this.defaultName);
-        logger.debug("Acquiring database: " + dbToUse);
-        return super.getDb(dbToUse);
+        MongoDatabase database = databases.get(dbToUse);
+        if (database != null) {
+            databaseCacheHits.increment();
+            return database;
+        }
+
+        databaseCacheMisses.increment();
+        logger.debug("Acquiring database: {}", dbToUse);
+        database = super.getDb(dbToUse);
+        if (databases.size() < MAX_CACHED_DATABASES) {
+            databases.putIfAbsent(dbToUse, database);
+        }
+        return database;
+    }
+
+    public long getDatabaseCacheHits() {
+        return databaseCacheHits.sum();
+    }
+
+    public long getDatabaseCacheMisses() {
+        return databaseCacheMisses.sum();
+    }
+
+    public int getDatabaseCacheSize() {
+        return databases.size();
     }
 }
 
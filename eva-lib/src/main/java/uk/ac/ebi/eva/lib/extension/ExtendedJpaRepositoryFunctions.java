@@ -7,6 +7,7 @@ import org.springframework.data.repository.Repository;
 import javax.persistence.Tuple;
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by jorizci on 03/10/16.
@@ -19,4 +20,14 @@ public interface ExtendedJpaRepositoryFunctions<T, ID extends Serializable> exte
     List<Tuple> groupCount(String columnName, Specification<T> specification);
 
     List<Tuple> groupCount(String columnName, Specification<T> specification, Boolean orderAscendant);
+
+    /**
+     * Counts the rows grouped by each of the columns, like calling groupCount once per column, but reading the rows
+     * only once.
+     *
+     * @return for each column, the count of every value, with the same counts that groupCount returns for that
+     * column, sorted by count if orderAscendant is not null
+     */
+    Map<String, Map<Object, Long>> groupCount(List<String> columnNames, Specification<T> specification,
+                                              Boolean orderAscendant);
 }
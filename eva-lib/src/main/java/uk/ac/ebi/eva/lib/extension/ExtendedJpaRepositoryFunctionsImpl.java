@@ -9,7 +9,12 @@ import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by jorizci on 03/10/16.
@@ -64,4 +69,64 @@ public class ExtendedJpaRepositoryFunctionsImpl<T, ID extends Serializable> exte
         return typedQuery.getResultList();
 
     }
+
+    /**
+     * The rows are grouped by all the columns together, which needs a single scan, and then the counts of the groups
+     * are added up for each column. The counts are of the non-null values of each column, as in groupCount.
+     */
+    @Override
+    public Map<String, Map<Object, Long>> groupCount(List<String> columnNames, Specification<T> specification,
+                                                     Boolean orderAscendant) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createQuery(Tuple.class);
+
+        Root<T> root = criteriaQuery.from(getDomainClass());
+        List<Expression<?>> columnPaths = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String columnName : columnNames) {
+            Path<?> columnPath = root.get(columnName);
+            columnPaths.add(columnPath);
+            selections.add(columnPath);
+        }
+        for (Expression<?> columnPath : columnPaths) {
+            selections.add(criteriaBuilder.count(columnPath));
+        }
+        criteriaQuery.multiselect(selections);
+        criteriaQuery.groupBy(columnPaths);
+
+        if (specification != null) {
+            criteriaQuery.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder));
+        }
+
+        List<Map<Object, Long>> counts = new ArrayList<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            counts.add(new HashMap<>());
+        }
+        for (Tuple tuple : entityManager.createQuery(criteriaQuery).getResultList()) {
+            for (int i = 0; i < columnNames.size(); i++) {
+                counts.get(i).merge(tuple.get(i), (Long) tuple.get(columnNames.size() + i), Long::sum);
+            }
+        }
+
+        Map<String, Map<Object, Long>> countsByColumn = new LinkedHashMap<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            countsByColumn.put(columnNames.get(i), sortByCount(counts.get(i), orderAscendant));
+        }
+        return countsByColumn;
+    }
+
+    private Map<Object, Long> sortByCount(Map<Object, Long> counts, Boolean orderAscendant) {
+        if (orderAscendant == null) {
+            return counts;
+        }
+        Comparator<Map.Entry<Object, Long>> byCount = Map.Entry.comparingByValue();
+        List<Map.Entry<Object, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(orderAscendant ? byCount : byCount.reversed());
+
+        Map<Object, Long> sortedCounts = new LinkedHashMap<>();
+        for (Map.Entry<Object, Long> entry : entries) {
+            sortedCounts.put(entry.getKey(), entry.getValue());
+        }
+        return sortedCounts;
+    }
 }
\ No newline at end of file
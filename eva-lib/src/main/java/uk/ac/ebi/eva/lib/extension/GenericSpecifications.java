@@ -40,6 +40,20 @@ public class GenericSpecifications<T> {
         };
     }
 
+    /**
+     * Matches values that contain the given text. Wildcards in the text are matched literally, so the text can come
+     * from a request as it is.
+     */
+    public static <T> Specification<T> contains(String attributeName, String text) {
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return new Specification<T>() {
+            @Override
+            public Predicate toPredicate(Root<T> root, CriteriaQuery<?> criteriaQuery, CriteriaBuilder criteriaBuilder) {
+                return criteriaBuilder.like(root.get(attributeName), pattern, '\\');
+            }
+        };
+    }
+
 
     public static <T> Specification<T> ilike(String attributeName, String pattern) {
         return new Specification<T>() {
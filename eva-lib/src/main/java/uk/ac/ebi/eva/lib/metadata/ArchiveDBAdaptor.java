@@ -15,6 +15,7 @@
  */
 package uk.ac.ebi.eva.lib.metadata;
 
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 
@@ -26,6 +27,14 @@ public interface ArchiveDBAdaptor {
 
     QueryResult countStudiesPerType(QueryOptions var1);
 
+    /**
+     * Counts the studies per species and per type, reading the studies only once.
+     *
+     * @return a single result with the counts per species and the counts per type, as the results of
+     * countStudiesPerSpecies and countStudiesPerType
+     */
+    QueryResult<SpeciesAndTypeCounts> countStudiesPerSpeciesAndType(QueryOptions queryOptions);
+
     QueryResult countFiles();
 
     QueryResult countSpecies();
@@ -20,6 +20,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import uk.ac.ebi.eva.lib.metadata.ArchiveDBAdaptor;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 import uk.ac.ebi.eva.lib.repositories.DgvaStudyBrowserRepository;
@@ -51,15 +52,7 @@ public class ArchiveDgvaDBAdaptor implements ArchiveDBAdaptor {
         Map<String, Long> result = new HashMap<>();
 
         for (Tuple tuple : countGroupBy) {
-            // Some studies are associated with multiple species, return as comma-separated values
-            String[] species = tuple.get(0) != null ? ((String) tuple.get(0)).split(",") : new String[]{ "Others" };
-            for (String s : species) {
-                long count = (long) tuple.get(1);
-                if (result.containsKey(s)) {
-                    count += result.get(s);
-                }
-                result.put(s, count);
-            }
+            addSpeciesCount(result, tuple.get(0), (long) tuple.get(1));
         }
 
         long end = System.currentTimeMillis();
@@ -81,6 +74,42 @@ public class ArchiveDgvaDBAdaptor implements ArchiveDBAdaptor {
         return new QueryResult(null, ((Long) (end - start)).intValue(), result.size(), result.size(), null, null, result);
     }
 
+    @Override
+    public QueryResult<SpeciesAndTypeCounts> countStudiesPerSpeciesAndType(QueryOptions queryOptions) {
+        long start = System.currentTimeMillis();
+        Specification filterSpecification = getSpeciesAndTypeFilters(queryOptions);
+        Map<String, Map<Object, Long>> counts = dgvaStudyBrowserRepository.groupCount(
+                Arrays.asList(DgvaStudyBrowserRepository.COMMON_NAME, DgvaStudyBrowserRepository.STUDY_TYPE),
+                filterSpecification, false);
+
+        Map<String, Long> speciesCounts = new HashMap<>();
+        for (Map.Entry<Object, Long> count : counts.get(DgvaStudyBrowserRepository.COMMON_NAME).entrySet()) {
+            addSpeciesCount(speciesCounts, count.getKey(), count.getValue());
+        }
+        List<Map.Entry<String, Long>> typeCounts = new ArrayList<>();
+        for (Map.Entry<Object, Long> count : counts.get(DgvaStudyBrowserRepository.STUDY_TYPE).entrySet()) {
+            String type = count.getKey() != null ? (String) count.getKey() : "Others";
+            typeCounts.add(new AbstractMap.SimpleEntry<>(type, count.getValue()));
+        }
+
+        SpeciesAndTypeCounts result = new SpeciesAndTypeCounts(new ArrayList<>(speciesCounts.entrySet()),
+                                                               typeCounts);
+        long end = System.currentTimeMillis();
+        return new QueryResult<>(null, ((Long) (end - start)).intValue(), 1, 1, null, null,
+                                 Collections.singletonList(result));
+    }
+
+    /**
+     * Some studies are associated with multiple species, grouped as comma-separated values, so their count is added
+     * to each of the species.
+     */
+    private void addSpeciesCount(Map<String, Long> speciesCounts, Object commonNames, long count) {
+        String[] species = commonNames != null ? ((String) commonNames).split(",") : new String[]{ "Others" };
+        for (String s : species) {
+            speciesCounts.merge(s, count, Long::sum);
+        }
+    }
+
     @Override
     public QueryResult countFiles() {
         throw new UnsupportedOperationException("Not supported yet.");
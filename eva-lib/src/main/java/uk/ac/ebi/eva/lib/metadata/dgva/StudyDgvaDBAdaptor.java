@@ -16,17 +16,21 @@
 package uk.ac.ebi.eva.lib.metadata.dgva;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import uk.ac.ebi.eva.lib.entities.DgvaStudyBrowser;
 import uk.ac.ebi.eva.lib.metadata.StudyDBAdaptor;
+import uk.ac.ebi.eva.lib.metadata.shared.StudyBrowserSnapshot;
+import uk.ac.ebi.eva.lib.metadata.shared.StudyBrowserSnapshotCache;
 import uk.ac.ebi.eva.lib.models.VariantStudy;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
+import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 import uk.ac.ebi.eva.lib.repositories.DgvaStudyBrowserRepository;
-import uk.ac.ebi.eva.lib.dgva_utils.DgvaDBUtils;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,19 +40,52 @@ public class StudyDgvaDBAdaptor implements StudyDBAdaptor {
     @Autowired
     private DgvaStudyBrowserRepository dgvaStudyBrowserRepository;
 
+    @Value("${eva.study-snapshot.ttl-seconds:3600}")
+    private long snapshotTtlSeconds;
+
+    private StudyBrowserSnapshotCache snapshotCache;
+
+    @PostConstruct
+    public void initSnapshotCache() {
+        snapshotCache = new StudyBrowserSnapshotCache(this::buildSnapshot, snapshotTtlSeconds);
+    }
+
+    /**
+     * The studies are read from a snapshot of the study browser, which is only rebuilt when it expires or is
+     * refreshed. Species and types can be any part of the names and type of the study, ignoring case, as in the SQL
+     * filters of DgvaDBUtils.getSpeciesAndTypeFilters.
+     */
     @Override
     public QueryResult getAllStudies(QueryOptions queryOptions) {
         long start = System.currentTimeMillis();
-        Specification filterSpecification = DgvaDBUtils.getSpeciesAndTypeFilters(queryOptions);
-        List<DgvaStudyBrowser> dgvaStudies = dgvaStudyBrowserRepository.findAll(filterSpecification);
-        List<VariantStudy> variantstudies = new ArrayList<>();
-        for (DgvaStudyBrowser dgvaStudy : dgvaStudies) {
-            variantstudies.add(dgvaStudy.generateVariantStudy());
-        }
+        List<VariantStudy> variantstudies = snapshotCache.get().find(
+                getFilterValues(queryOptions, QueryOptionsConstants.SPECIES), StudyDgvaDBAdaptor::containsIgnoreCase,
+                getFilterValues(queryOptions, QueryOptionsConstants.TYPE), StudyDgvaDBAdaptor::containsIgnoreCase);
         long end = System.currentTimeMillis();
         return new QueryResult(null, ((Long) (end - start)).intValue(), variantstudies.size(), variantstudies.size(), null, null, variantstudies);
     }
 
+    /**
+     * Reads the study browser again, e.g. after loading a study.
+     */
+    public StudyBrowserSnapshot refreshSnapshot() {
+        return snapshotCache.refresh();
+    }
+
+    private StudyBrowserSnapshot buildSnapshot() {
+        return StudyBrowserSnapshot.build(dgvaStudyBrowserRepository.findAll(),
+                                          study -> Arrays.asList(study.getCommonName(), study.getScientificName()),
+                                          DgvaStudyBrowser::getStudyType,
+                                          DgvaStudyBrowser::generateVariantStudy);
+    }
+
+    private List<String> getFilterValues(QueryOptions queryOptions, String filter) {
+        return queryOptions.containsKey(filter) ? queryOptions.getAsStringList(filter) : null;
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        return value.toLowerCase().contains(part.toLowerCase());
+    }
 
     @Override
     public QueryResult listStudies() {
@@ -21,20 +21,19 @@ import org.springframework.stereotype.Component;
 
 import uk.ac.ebi.eva.lib.metadata.ArchiveDBAdaptor;
 import uk.ac.ebi.eva.lib.models.Assembly;
-import uk.ac.ebi.eva.lib.extension.GenericSpecifications;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 import uk.ac.ebi.eva.lib.repositories.FileRepository;
 import uk.ac.ebi.eva.lib.repositories.ProjectRepository;
 import uk.ac.ebi.eva.lib.repositories.EvaStudyBrowserRepository;
 import uk.ac.ebi.eva.lib.repositories.TaxonomyRepository;
-import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
 
 import javax.persistence.Tuple;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static org.springframework.data.jpa.domain.Specification.where;
+import static uk.ac.ebi.eva.lib.eva_utils.EvaproDbUtils.getSpeciesAndTypeFilters;
 
 @Component
 public class ArchiveEvaproDBAdaptor implements ArchiveDBAdaptor {
@@ -89,6 +88,30 @@ public class ArchiveEvaproDBAdaptor implements ArchiveDBAdaptor {
         return new QueryResult(null, ((Long) (end - start)).intValue(), result.size(), result.size(), null, null, result);
     }
 
+    @Override
+    public QueryResult<SpeciesAndTypeCounts> countStudiesPerSpeciesAndType(QueryOptions queryOptions) {
+        long start = System.currentTimeMillis();
+        Specification filterSpecification = getSpeciesAndTypeFilters(queryOptions);
+        Map<String, Map<Object, Long>> counts = evaStudyBrowserRepository.groupCount(
+                Arrays.asList(EvaStudyBrowserRepository.COMMON_NAME, EvaStudyBrowserRepository.EXPERIMENT_TYPE),
+                filterSpecification, false);
+        SpeciesAndTypeCounts result = new SpeciesAndTypeCounts(
+                toCountEntries(counts.get(EvaStudyBrowserRepository.COMMON_NAME)),
+                toCountEntries(counts.get(EvaStudyBrowserRepository.EXPERIMENT_TYPE)));
+        long end = System.currentTimeMillis();
+        return new QueryResult<>(null, ((Long) (end - start)).intValue(), 1, 1, null, null,
+                                 Collections.singletonList(result));
+    }
+
+    private List<Map.Entry<String, Long>> toCountEntries(Map<Object, Long> counts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (Map.Entry<Object, Long> count : counts.entrySet()) {
+            String value = count.getKey() != null ? (String) count.getKey() : "Others";
+            entries.add(new AbstractMap.SimpleEntry<>(value, count.getValue()));
+        }
+        return entries;
+    }
+
     @Override
     public QueryResult countFiles() {
         long start = System.currentTimeMillis();
@@ -126,37 +149,4 @@ public class ArchiveEvaproDBAdaptor implements ArchiveDBAdaptor {
         long end = System.currentTimeMillis();
         return new QueryResult(null, ((Long) (end - start)).intValue(), result.size(), result.size(), null, null, result);
     }
-
-    private Specification getSpeciesAndTypeFilters(QueryOptions queryOptions) {
-        if (!queryOptions.containsKey(QueryOptionsConstants.SPECIES) && !queryOptions.containsKey(QueryOptionsConstants.TYPE)) {
-            return null;
-        }
-
-        Specification speciesSpecifications = null;
-        if (queryOptions.containsKey(QueryOptionsConstants.SPECIES)) {
-            Object[] species = queryOptions.getAsStringList(QueryOptionsConstants.SPECIES).toArray(new Object[]{});
-            speciesSpecifications = where(GenericSpecifications.in(EvaStudyBrowserRepository.COMMON_NAME, species))
-                    .or(GenericSpecifications.in(EvaStudyBrowserRepository.SCIENTIFIC_NAME, species));
-        }
-
-        Specification typeSpecifications = null;
-        if (queryOptions.containsKey(QueryOptionsConstants.TYPE)) {
-            Object[] types = queryOptions.getAsStringList(QueryOptionsConstants.TYPE).toArray(new Object[]{});
-            typeSpecifications = where(GenericSpecifications.in(EvaStudyBrowserRepository.EXPERIMENT_TYPE, types));
-            for (Object type : types) {
-                typeSpecifications = typeSpecifications.or(GenericSpecifications
-                        .like(EvaStudyBrowserRepository.EXPERIMENT_TYPE, "%" + type + "%"));
-            }
-        }
-
-        if (speciesSpecifications != null && typeSpecifications != null) {
-            return speciesSpecifications.and(typeSpecifications);
-        } else {
-            if (speciesSpecifications != null) {
-                return speciesSpecifications;
-            } else {
-                return typeSpecifications;
-            }
-        }
-    }
 }
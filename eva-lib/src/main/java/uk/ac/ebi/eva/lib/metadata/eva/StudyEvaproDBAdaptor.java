@@ -16,22 +16,28 @@
 package uk.ac.ebi.eva.lib.metadata.eva;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import uk.ac.ebi.eva.lib.metadata.StudyDBAdaptor;
+import uk.ac.ebi.eva.lib.metadata.shared.StudyBrowserSnapshot;
+import uk.ac.ebi.eva.lib.metadata.shared.StudyBrowserSnapshotCache;
+import uk.ac.ebi.eva.lib.metadata.shared.StudySearchIndex;
+import uk.ac.ebi.eva.lib.metadata.shared.StudySearchResult;
 import uk.ac.ebi.eva.lib.models.VariantStudy;
 import uk.ac.ebi.eva.lib.entities.EvaStudyBrowser;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
+import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 import uk.ac.ebi.eva.lib.repositories.EvaStudyBrowserRepository;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-import static uk.ac.ebi.eva.lib.eva_utils.EvaproDbUtils.getSpeciesAndTypeFilters;
-
 
 @Component
 public class StudyEvaproDBAdaptor implements StudyDBAdaptor {
@@ -39,21 +45,73 @@ public class StudyEvaproDBAdaptor implements StudyDBAdaptor {
     @Autowired
     private EvaStudyBrowserRepository evaStudyBrowserRepository;
 
+    @Value("${eva.study-snapshot.ttl-seconds:3600}")
+    private long snapshotTtlSeconds;
+
+    private StudyBrowserSnapshotCache snapshotCache;
+
+    private volatile StudySearchIndex searchIndex;
+
+    @PostConstruct
+    public void initSnapshotCache() {
+        snapshotCache = new StudyBrowserSnapshotCache(this::buildSnapshot, snapshotTtlSeconds);
+    }
+
+    /**
+     * The studies are read from a snapshot of the study browser, which is only rebuilt when it expires or is
+     * refreshed. Species must be equal to the common or scientific name of the study, while types can be any part of
+     * its experiment type, as in the SQL filters of EvaproDbUtils.getSpeciesAndTypeFilters.
+     */
     @Override
     public QueryResult getAllStudies(QueryOptions queryOptions) {
         long start = System.currentTimeMillis();
-        Specification filterSpecification = getSpeciesAndTypeFilters(queryOptions);
-        List<EvaStudyBrowser> dgvaStudies = evaStudyBrowserRepository.findAll(filterSpecification);
-        List<VariantStudy> variantstudies = new ArrayList<>();
-        for (EvaStudyBrowser dgvaStudy : dgvaStudies) {
-            if (dgvaStudy != null) {
-                variantstudies.add(dgvaStudy.generateVariantStudy());
-            }
-        }
+        List<VariantStudy> variantstudies = snapshotCache.get().find(
+                getFilterValues(queryOptions, QueryOptionsConstants.SPECIES), String::equals,
+                getFilterValues(queryOptions, QueryOptionsConstants.TYPE), String::contains);
         long end = System.currentTimeMillis();
         return new QueryResult(null, ((Long) (end - start)).intValue(), variantstudies.size(), variantstudies.size(), null, null, variantstudies);
     }
 
+    /**
+     * Searches the studies of the same snapshot as getAllStudies. The search index is built the first time a
+     * snapshot is searched.
+     *
+     * @see StudySearchIndex#search
+     */
+    public StudySearchResult searchStudies(String text, Map<StudySearchIndex.Facet, List<String>> filters,
+                                           int pageNumber, int pageSize) {
+        return getSearchIndex().search(text, filters, pageNumber, pageSize);
+    }
+
+    private StudySearchIndex getSearchIndex() {
+        StudyBrowserSnapshot snapshot = snapshotCache.get();
+        StudySearchIndex currentSearchIndex = searchIndex;
+        if (currentSearchIndex == null || currentSearchIndex.getStudies() != snapshot.getStudies()) {
+            // Concurrent requests may build it more than once, but the result is the same
+            currentSearchIndex = StudySearchIndex.build(snapshot.getStudies());
+            searchIndex = currentSearchIndex;
+        }
+        return currentSearchIndex;
+    }
+
+    /**
+     * Reads the study browser again, e.g. after loading a study.
+     */
+    public StudyBrowserSnapshot refreshSnapshot() {
+        return snapshotCache.refresh();
+    }
+
+    private StudyBrowserSnapshot buildSnapshot() {
+        return StudyBrowserSnapshot.build(evaStudyBrowserRepository.findAll(),
+                                          study -> Arrays.asList(study.getCommonName(), study.getScientificName()),
+                                          EvaStudyBrowser::getExperimentType,
+                                          EvaStudyBrowser::generateVariantStudy);
+    }
+
+    private List<String> getFilterValues(QueryOptions queryOptions, String filter) {
+        return queryOptions.containsKey(filter) ? queryOptions.getAsStringList(filter) : null;
+    }
+
     @Override
     public QueryResult listStudies() {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import uk.ac.ebi.eva.lib.metadata.ArchiveDBAdaptor;
 import uk.ac.ebi.eva.lib.metadata.StudyDBAdaptor;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
@@ -57,13 +58,13 @@ public class ArchiveWSServerHelper {
 
         QueryOptions queryOptions = queryUtils.getQueryOptions();
 
-        QueryResult<Map.Entry<String, Long>> resultSpecies, resultTypes;
-
-        resultSpecies = archiveDBAdaptor.countStudiesPerSpecies(queryOptions);
-        resultTypes = archiveDBAdaptor.countStudiesPerType(queryOptions);
+        QueryResult<SpeciesAndTypeCounts> resultSpeciesAndTypes =
+                archiveDBAdaptor.countStudiesPerSpeciesAndType(queryOptions);
+        List<Map.Entry<String, Long>> speciesCounts = resultSpeciesAndTypes.getResult().get(0).getSpeciesCounts();
+        List<Map.Entry<String, Long>> typesCounts = resultSpeciesAndTypes.getResult().get(0).getTypeCounts();
 
         QueryResult combinedQueryResult = new QueryResult();
-        combinedQueryResult.setDbTime(resultSpecies.getDbTime() + resultTypes.getDbTime());
+        combinedQueryResult.setDbTime(resultSpeciesAndTypes.getDbTime());
 
         JsonNodeFactory factory = new JsonNodeFactory(true);
         ObjectNode root = factory.objectNode();
@@ -72,14 +73,14 @@ public class ArchiveWSServerHelper {
 
         // Species
         ObjectNode speciesNode = factory.objectNode();
-        for (Map.Entry<String, Long> speciesCount : resultSpecies.getResult()) {
+        for (Map.Entry<String, Long> speciesCount : speciesCounts) {
             speciesNode.put(speciesCount.getKey(), speciesCount.getValue());
         }
         root.put("species", speciesNode);
 
         // Types
         ObjectNode typesNode = factory.objectNode();
-        for (Map.Entry<String, Long> typesCount : resultTypes.getResult()) {
+        for (Map.Entry<String, Long> typesCount : typesCounts) {
             typesNode.put(typesCount.getKey(), typesCount.getValue());
         }
         root.put("type", typesNode);
@@ -0,0 +1,141 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.lib.metadata.shared;
+
+import uk.ac.ebi.eva.lib.models.VariantStudy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Immutable list of the studies of a study browser view, converted to VariantStudy only once, and indexed by species
+ * name and type.
+ *
+ * The indexes map every distinct species name and type of the view to the positions of its studies. Filters are
+ * matched against the distinct values, which are few compared to the studies, and the positions of the matching
+ * values are combined. Studies are returned in the order they were read from the view.
+ */
+public class StudyBrowserSnapshot {
+
+    private final List<VariantStudy> studies;
+
+    private final Map<String, BitSet> studiesBySpecies;
+
+    private final Map<String, BitSet> studiesByType;
+
+    private final long timestamp;
+
+    private StudyBrowserSnapshot(List<VariantStudy> studies, Map<String, BitSet> studiesBySpecies,
+                                 Map<String, BitSet> studiesByType) {
+        this.studies = Collections.unmodifiableList(studies);
+        this.studiesBySpecies = studiesBySpecies;
+        this.studiesByType = studiesByType;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * The species names and type are read before the conversion, because some conversions normalise the fields of
+     * the row.
+     *
+     * @param speciesNames names of the species of a row, as they are in the view
+     * @param type type of a row, as it is in the view
+     */
+    public static <T> StudyBrowserSnapshot build(Iterable<T> rows, Function<T, Collection<String>> speciesNames,
+                                                 Function<T, String> type, Function<T, VariantStudy> conversion) {
+        List<VariantStudy> studies = new ArrayList<>();
+        Map<String, BitSet> studiesBySpecies = new HashMap<>();
+        Map<String, BitSet> studiesByType = new HashMap<>();
+        for (T row : rows) {
+            if (row == null) {
+                continue;
+            }
+            int position = studies.size();
+            for (String speciesName : speciesNames.apply(row)) {
+                addToIndex(studiesBySpecies, speciesName, position);
+            }
+            addToIndex(studiesByType, type.apply(row), position);
+            studies.add(conversion.apply(row));
+        }
+        return new StudyBrowserSnapshot(studies, studiesBySpecies, studiesByType);
+    }
+
+    private static void addToIndex(Map<String, BitSet> index, String value, int position) {
+        // Like in a SQL filter, null values don't match anything
+        if (value != null) {
+            index.computeIfAbsent(value, key -> new BitSet()).set(position);
+        }
+    }
+
+    /**
+     * @param species names to filter by, or null to not filter by species
+     * @param speciesMatcher tells whether a species name of the view (first argument) matches a requested one
+     * @param types types to filter by, or null to not filter by type
+     * @param typeMatcher tells whether a type of the view (first argument) matches a requested one
+     * @return the studies that match any of the species, and any of the types
+     */
+    public List<VariantStudy> find(List<String> species, BiPredicate<String, String> speciesMatcher,
+                                   List<String> types, BiPredicate<String, String> typeMatcher) {
+        if (species == null && types == null) {
+            return studies;
+        }
+        BitSet positions = new BitSet();
+        positions.set(0, studies.size());
+        if (species != null) {
+            positions.and(getMatchingPositions(studiesBySpecies, species, speciesMatcher));
+        }
+        if (types != null) {
+            positions.and(getMatchingPositions(studiesByType, types, typeMatcher));
+        }
+
+        List<VariantStudy> matchingStudies = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            matchingStudies.add(studies.get(position));
+        }
+        return matchingStudies;
+    }
+
+    private BitSet getMatchingPositions(Map<String, BitSet> index, List<String> requestedValues,
+                                        BiPredicate<String, String> matcher) {
+        BitSet positions = new BitSet();
+        for (Map.Entry<String, BitSet> indexEntry : index.entrySet()) {
+            for (String requestedValue : requestedValues) {
+                if (requestedValue != null && matcher.test(indexEntry.getKey(), requestedValue)) {
+                    positions.or(indexEntry.getValue());
+                    break;
+                }
+            }
+        }
+        return positions;
+    }
+
+    public List<VariantStudy> getStudies() {
+        return studies;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.lib.metadata.shared;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the latest snapshot of a study browser view. The snapshot is built on first use, and rebuilt when it is older
+ * than the time to live or when refresh is called, e.g. after loading a study. A new snapshot replaces the previous one
+ * only when it is complete, so readers never see a partially built one.
+ */
+public class StudyBrowserSnapshotCache {
+
+    private final Supplier<StudyBrowserSnapshot> loader;
+
+    private final long ttlMillis;
+
+    private volatile StudyBrowserSnapshot snapshot;
+
+    public StudyBrowserSnapshotCache(Supplier<StudyBrowserSnapshot> loader, long ttlSeconds) {
+        this.loader = loader;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    public StudyBrowserSnapshot get() {
+        StudyBrowserSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot != null && !isStale(currentSnapshot)) {
+            return currentSnapshot;
+        }
+        synchronized (this) {
+            // Another thread may have rebuilt it while this one was waiting
+            if (snapshot == null || isStale(snapshot)) {
+                snapshot = loader.get();
+            }
+            return snapshot;
+        }
+    }
+
+    public synchronized StudyBrowserSnapshot refresh() {
+        snapshot = loader.get();
+        return snapshot;
+    }
+
+    private boolean isStale(StudyBrowserSnapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.getTimestamp() >= ttlMillis;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.lib.metadata.shared;
+
+import uk.ac.ebi.eva.lib.models.VariantStudy;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Inverted index over a list of studies, to search them by words of their title, description and accession, and
+ * filter them by facets like species or platform.
+ *
+ * Every word and facet value maps to the positions of its studies, so a search only combines a few BitSets. Words
+ * match by prefix, so partially typed words already find results. Facet counts are computed for the studies that
+ * match the text and the filters of the other facets, so that selecting a species still shows how many studies the
+ * other species have.
+ */
+public class StudySearchIndex {
+
+    public enum Facet {
+
+        SPECIES("species", VariantStudy::getSpeciesCommonName, VariantStudy::getSpeciesScientificName),
+        ASSEMBLY("assembly", VariantStudy::getAssembly, VariantStudy::getAssemblyAccession),
+        PLATFORM("platform", VariantStudy::getPlatform, study -> null),
+        TYPE("type", VariantStudy::getExperimentType, study -> null),
+        SCOPE("scope", VariantStudy::getScope, study -> null);
+
+        private final String name;
+
+        private final Function<VariantStudy, String> values;
+
+        private final Function<VariantStudy, String> aliases;
+
+        /**
+         * @param values comma-separated values that are counted
+         * @param aliases comma-separated values that can be used to filter, but are not counted, e.g. scientific
+         * names of the species
+         */
+        Facet(String name, Function<VariantStudy, String> values, Function<VariantStudy, String> aliases) {
+            this.name = name;
+            this.values = values;
+            this.aliases = aliases;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final List<VariantStudy> studies;
+
+    private final NavigableMap<String, BitSet> studiesByWord;
+
+    private final Map<Facet, Map<String, BitSet>> studiesByFacetValue;
+
+    /**
+     * Same as studiesByFacetValue, plus aliases, with lower case keys
+     */
+    private final Map<Facet, Map<String, BitSet>> studiesByFilterValue;
+
+    private StudySearchIndex(List<VariantStudy> studies, NavigableMap<String, BitSet> studiesByWord,
+                             Map<Facet, Map<String, BitSet>> studiesByFacetValue,
+                             Map<Facet, Map<String, BitSet>> studiesByFilterValue) {
+        this.studies = studies;
+        this.studiesByWord = studiesByWord;
+        this.studiesByFacetValue = studiesByFacetValue;
+        this.studiesByFilterValue = studiesByFilterValue;
+    }
+
+    public static StudySearchIndex build(List<VariantStudy> studies) {
+        NavigableMap<String, BitSet> studiesByWord = new TreeMap<>();
+        Map<Facet, Map<String, BitSet>> studiesByFacetValue = new EnumMap<>(Facet.class);
+        Map<Facet, Map<String, BitSet>> studiesByFilterValue = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            studiesByFacetValue.put(facet, new HashMap<>());
+            studiesByFilterValue.put(facet, new HashMap<>());
+        }
+
+        for (int position = 0; position < studies.size(); position++) {
+            VariantStudy study = studies.get(position);
+            for (String text : new String[]{study.getName(), study.getDescription(), study.getId()}) {
+                for (String word : getWords(text)) {
+                    addToIndex(studiesByWord, word, position);
+                }
+            }
+            for (Facet facet : Facet.values()) {
+                for (String value : splitValues(facet.values.apply(study))) {
+                    addToIndex(studiesByFacetValue.get(facet), value, position);
+                    addToIndex(studiesByFilterValue.get(facet), value.toLowerCase(Locale.ROOT), position);
+                }
+                for (String alias : splitValues(facet.aliases.apply(study))) {
+                    addToIndex(studiesByFilterValue.get(facet), alias.toLowerCase(Locale.ROOT), position);
+                }
+            }
+        }
+        return new StudySearchIndex(studies, studiesByWord, studiesByFacetValue, studiesByFilterValue);
+    }
+
+    private static List<String> getWords(String text) {
+        List<String> words = new ArrayList<>();
+        if (text != null) {
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static List<String> splitValues(String values) {
+        List<String> splitValues = new ArrayList<>();
+        if (values != null) {
+            for (String value : values.split(",")) {
+                if (!value.trim().isEmpty()) {
+                    splitValues.add(value.trim());
+                }
+            }
+        }
+        return splitValues;
+    }
+
+    private static void addToIndex(Map<String, BitSet> index, String key, int position) {
+        index.computeIfAbsent(key, k -> new BitSet()).set(position);
+    }
+
+    /**
+     * @param text words that must all be found in the title, description or accession of the studies, or null to not
+     * search by text
+     * @param filters values of each facet to filter by; a study must match any of the values of every facet
+     * @param pageNumber number of the page of results, starting from 0
+     * @param pageSize maximum number of studies in the page
+     */
+    public StudySearchResult search(String text, Map<Facet, List<String>> filters, int pageNumber, int pageSize) {
+        if (pageNumber < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("The page number must not be negative and the page size must be " +
+                                                       "positive");
+        }
+
+        BitSet textMatches = getTextMatches(text);
+        Map<Facet, BitSet> filterMatches = new EnumMap<>(Facet.class);
+        for (Map.Entry<Facet, List<String>> filter : filters.entrySet()) {
+            if (filter.getValue() != null && !filter.getValue().isEmpty()) {
+                filterMatches.put(filter.getKey(), getFilterMatches(filter.getKey(), filter.getValue()));
+            }
+        }
+
+        BitSet matches = (BitSet) textMatches.clone();
+        filterMatches.values().forEach(matches::and);
+
+        Map<String, Map<String, Long>> facetCounts = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            BitSet facetMatches = (BitSet) textMatches.clone();
+            filterMatches.forEach((otherFacet, otherMatches) -> {
+                if (otherFacet != facet) {
+                    facetMatches.and(otherMatches);
+                }
+            });
+            facetCounts.put(facet.getName(), countFacetValues(facet, facetMatches));
+        }
+
+        List<VariantStudy> page = new ArrayList<>();
+        long pageStart = (long) pageNumber * pageSize;
+        int skipped = 0;
+        for (int position = matches.nextSetBit(0); position >= 0 && page.size() < pageSize;
+             position = matches.nextSetBit(position + 1)) {
+            if (skipped < pageStart) {
+                skipped++;
+            } else {
+                page.add(studies.get(position));
+            }
+        }
+        return new StudySearchResult(page, matches.cardinality(), facetCounts);
+    }
+
+    private BitSet getTextMatches(String text) {
+        BitSet matches = new BitSet();
+        matches.set(0, studies.size());
+        for (String word : getWords(text)) {
+            BitSet wordMatches = new BitSet();
+            // All the words that start with the searched one sort right after it
+            for (BitSet positions : studiesByWord.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                wordMatches.or(positions);
+            }
+            matches.and(wordMatches);
+        }
+        return matches;
+    }
+
+    private BitSet getFilterMatches(Facet facet, List<String> values) {
+        BitSet matches = new BitSet();
+        Map<String, BitSet> index = studiesByFilterValue.get(facet);
+        for (String value : values) {
+            if (value != null) {
+                BitSet positions = index.get(value.trim().toLowerCase(Locale.ROOT));
+                if (positions != null) {
+                    matches.or(positions);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return the number of matching studies with each value of the facet, from the most to the least frequent
+     */
+    private Map<String, Long> countFacetValues(Facet facet, BitSet matches) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Map.Entry<String, BitSet> facetValue : studiesByFacetValue.get(facet).entrySet()) {
+            BitSet valueMatches = (BitSet) facetValue.getValue().clone();
+            valueMatches.and(matches);
+            if (!valueMatches.isEmpty()) {
+                counts.add(new AbstractMap.SimpleEntry<>(facetValue.getKey(),
+                                                                   (long) valueMatches.cardinality()));
+            }
+        }
+        counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Long> sortedCounts = new LinkedHashMap<>();
+        counts.forEach(count -> sortedCounts.put(count.getKey(), count.getValue()));
+        return Collections.unmodifiableMap(sortedCounts);
+    }
+
+    public List<VariantStudy> getStudies() {
+        return studies;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.lib.metadata.shared;
+
+import uk.ac.ebi.eva.lib.models.VariantStudy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of the studies found by a StudySearchIndex, with the total number of matching studies and the counts of every
+ * facet.
+ */
+public class StudySearchResult {
+
+    private final List<VariantStudy> studies;
+
+    private final long totalResults;
+
+    private final Map<String, Map<String, Long>> facets;
+
+    public StudySearchResult(List<VariantStudy> studies, long totalResults, Map<String, Map<String, Long>> facets) {
+        this.studies = studies;
+        this.totalResults = totalResults;
+        this.facets = facets;
+    }
+
+    public List<VariantStudy> getStudies() {
+        return studies;
+    }
+
+    public long getTotalResults() {
+        return totalResults;
+    }
+
+    /**
+     * @return for every facet name, the number of studies with each of its values
+     */
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.lib.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of studies per species and per type, counted together in a single read of the studies.
+ */
+public class SpeciesAndTypeCounts {
+
+    private final List<Map.Entry<String, Long>> speciesCounts;
+
+    private final List<Map.Entry<String, Long>> typeCounts;
+
+    public SpeciesAndTypeCounts(List<Map.Entry<String, Long>> speciesCounts,
+                                List<Map.Entry<String, Long>> typeCounts) {
+        this.speciesCounts = speciesCounts;
+        this.typeCounts = typeCounts;
+    }
+
+    public List<Map.Entry<String, Long>> getSpeciesCounts() {
+        return speciesCounts;
+    }
+
+    public List<Map.Entry<String, Long>> getTypeCounts() {
+        return typeCounts;
+    }
+}
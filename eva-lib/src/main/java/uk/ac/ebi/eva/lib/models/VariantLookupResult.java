@@ -0,0 +1,61 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.lib.models;
+
+import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
+
+/**
+ * Result of looking up one variant of a batch: the requested variant core string, the variant if it was found, and
+ * the error if it couldn't be looked up, e.g. because the core string matches more than one variant.
+ */
+public class VariantLookupResult {
+
+    private final String variantCoreString;
+
+    private final Variant variant;
+
+    private final String error;
+
+    public VariantLookupResult(String variantCoreString, Variant variant) {
+        this(variantCoreString, variant, null);
+    }
+
+    public VariantLookupResult(String variantCoreString, Variant variant, String error) {
+        this.variantCoreString = variantCoreString;
+        this.variant = variant;
+        this.error = error;
+    }
+
+    public String getVariantCoreString() {
+        return variantCoreString;
+    }
+
+    public boolean isFound() {
+        return variant != null;
+    }
+
+    public Variant getVariant() {
+        return variant;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
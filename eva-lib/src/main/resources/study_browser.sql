@@ -52,3 +52,11 @@ CREATE MATERIALIZED VIEW evapro.study_browser AS
           GROUP BY browsable_file.project_accession) browsable_table(project_accession_browsable, browsable) ON browsable_table.project_accession_browsable::text = project.project_accession::text
   WHERE (project.hold_date <= now()::date OR project.hold_date IS NULL) AND eva_submission.eva_submission_status_id >= 6 AND project.ena_status = 4 AND project.eva_status = 1
   ORDER BY project_children_taxonomy.taxonomy_common_names;
+
+-- Species are filtered by exact name, and experiment types by any part of the name (LIKE '%type%'), which needs a
+-- trigram index to avoid scanning the whole view
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX study_browser_common_name_idx ON evapro.study_browser (common_name);
+CREATE INDEX study_browser_scientific_name_idx ON evapro.study_browser (scientific_name);
+CREATE INDEX study_browser_experiment_type_trgm_idx ON evapro.study_browser USING gin (experiment_type gin_trgm_ops);
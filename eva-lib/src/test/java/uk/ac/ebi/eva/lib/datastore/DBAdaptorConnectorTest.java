@@ -4,6 +4,8 @@ import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbConfigurationBuilder;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbRule;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ReadConcern;
 import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoDatabase;
 
@@ -23,11 +25,13 @@ import uk.ac.ebi.eva.lib.MultiMongoFactoryConfiguration;
 import uk.ac.ebi.eva.lib.configuration.MongoRepositoryTestConfiguration;
 import uk.ac.ebi.eva.lib.configuration.SpringDataMongoDbProperties;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
+import uk.ac.ebi.eva.lib.eva_utils.MongoQueryContext;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
 import uk.ac.ebi.eva.lib.test.rule.FixSpringMongoDbRule;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @UsingDataSet(locations = {
@@ -76,6 +80,18 @@ public class DBAdaptorConnectorTest {
         assertEquals(db.getName(), dbName);
     }
 
+    @Test
+    public void testMongoDbFactoryUsesReadConcernOfCurrentThread() {
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread("test-db");
+        MongoQueryContext.setReadConcernForCurrentThread(ReadConcern.LOCAL);
+        try {
+            assertEquals(ReadConcern.LOCAL, factory.getDb().getReadConcern());
+        } finally {
+            MongoQueryContext.clearReadConcernForCurrentThread();
+        }
+        assertEquals(ReadConcern.MAJORITY, factory.getDb().getReadConcern());
+    }
+
     /**
      * Check that the value secondaryPreferred is used when it's not specified in the properties.
      *
@@ -86,4 +102,53 @@ public class DBAdaptorConnectorTest {
         MongoClient mongoClient = DBAdaptorConnector.getMongoClient(springDataMongoDbProperties);
         assertEquals(ReadPreference.secondaryPreferred(), mongoClient.getReadPreference());
     }
+
+    @Test
+    public void testDefaultCompressorsInMongoClient() throws Exception {
+        MongoClient mongoClient = DBAdaptorConnector.getMongoClient(springDataMongoDbProperties);
+        assertEquals(1, mongoClient.getMongoClientOptions().getCompressorList().size());
+        assertEquals("zlib", mongoClient.getMongoClientOptions().getCompressorList().get(0).getName());
+    }
+
+    @Test
+    public void testConnectionPoolAndTimeoutsInMongoClient() throws Exception {
+        SpringDataMongoDbProperties properties = new SpringDataMongoDbProperties();
+        properties.setHost(springDataMongoDbProperties.getHost());
+        properties.setConnectionsPerHost(20);
+        properties.setThreadsAllowedToBlockForConnectionMultiplier(3);
+        properties.setMaxWaitTime(1000);
+        properties.setConnectTimeout(2000);
+        properties.setSocketTimeout(30000);
+        properties.setServerSelectionTimeout(5000);
+        properties.setCompressors("");
+
+        MongoClientOptions options = DBAdaptorConnector.getMongoClient(properties).getMongoClientOptions();
+        assertEquals(20, options.getConnectionsPerHost());
+        assertEquals(3, options.getThreadsAllowedToBlockForConnectionMultiplier());
+        assertEquals(1000, options.getMaxWaitTime());
+        assertEquals(2000, options.getConnectTimeout());
+        assertEquals(30000, options.getSocketTimeout());
+        assertEquals(5000, options.getServerSelectionTimeout());
+        assertTrue(options.getCompressorList().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCompressor() throws Exception {
+        SpringDataMongoDbProperties properties = new SpringDataMongoDbProperties();
+        properties.setHost(springDataMongoDbProperties.getHost());
+        properties.setCompressors("zlib,lz4");
+        DBAdaptorConnector.getMongoClient(properties);
+    }
+
+    @Test
+    public void testReadConcernLevels() {
+        assertEquals(ReadConcern.LOCAL, DBAdaptorConnector.getReadConcern("local"));
+        assertEquals(ReadConcern.MAJORITY, DBAdaptorConnector.getReadConcern("majority"));
+        assertEquals(ReadConcern.DEFAULT, DBAdaptorConnector.getReadConcern(""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownReadConcernLevel() {
+        DBAdaptorConnector.getReadConcern("available");
+    }
 }
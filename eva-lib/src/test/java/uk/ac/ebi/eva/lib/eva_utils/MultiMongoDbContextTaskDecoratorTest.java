@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.lib.eva_utils;
+
+import com.mongodb.ReadConcern;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MultiMongoDbContextTaskDecoratorTest {
+
+    private MultiMongoDbContextTaskDecorator decorator = new MultiMongoDbContextTaskDecorator();
+
+    @After
+    public void tearDown() {
+        MultiMongoDbFactory.clearDatabaseNameForCurrentThread();
+        MongoQueryContext.clearMaxTimeMsForCurrentThread();
+        MongoQueryContext.clearReadConcernForCurrentThread();
+    }
+
+    @Test
+    public void databaseIsPropagatedAndClearedInWorkerThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<String> databaseInTask = new AtomicReference<>();
+            MultiMongoDbFactory.setDatabaseNameForCurrentThread("eva_hsapiens_grch37");
+            executor.submit(decorator.decorate(
+                    () -> databaseInTask.set(MultiMongoDbFactory.getDatabaseNameForCurrentThread()))).get();
+            assertEquals("eva_hsapiens_grch37", databaseInTask.get());
+
+            AtomicReference<String> databaseAfterTask = new AtomicReference<>("not checked");
+            executor.submit(() -> databaseAfterTask.set(MultiMongoDbFactory.getDatabaseNameForCurrentThread())).get();
+            assertNull(databaseAfterTask.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void databaseIsRestoredWhenRunInSubmittingThread() {
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread("eva_mmusculus_grcm38");
+        Runnable task = decorator.decorate(() -> assertEquals("eva_mmusculus_grcm38",
+                                                              MultiMongoDbFactory.getDatabaseNameForCurrentThread()));
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread("eva_hsapiens_grch38");
+
+        task.run();
+
+        assertEquals("eva_hsapiens_grch38", MultiMongoDbFactory.getDatabaseNameForCurrentThread());
+    }
+
+    @Test
+    public void maxTimeIsPropagatedAndRestored() {
+        MongoQueryContext.setMaxTimeMsForCurrentThread(5000L);
+        Runnable task = decorator.decorate(
+                () -> assertEquals(Long.valueOf(5000), MongoQueryContext.getMaxTimeMsForCurrentThread()));
+        MongoQueryContext.clearMaxTimeMsForCurrentThread();
+
+        task.run();
+
+        assertNull(MongoQueryContext.getMaxTimeMsForCurrentThread());
+    }
+
+    @Test
+    public void readConcernIsPropagatedAndRestored() {
+        MongoQueryContext.setReadConcernForCurrentThread(ReadConcern.LOCAL);
+        Runnable task = decorator.decorate(
+                () -> assertEquals(ReadConcern.LOCAL, MongoQueryContext.getReadConcernForCurrentThread()));
+        MongoQueryContext.setReadConcernForCurrentThread(ReadConcern.MAJORITY);
+
+        task.run();
+
+        assertEquals(ReadConcern.MAJORITY, MongoQueryContext.getReadConcernForCurrentThread());
+    }
+}
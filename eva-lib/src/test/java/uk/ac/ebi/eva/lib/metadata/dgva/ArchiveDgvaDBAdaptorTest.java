@@ -22,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
@@ -139,6 +140,25 @@ public class ArchiveDgvaDBAdaptorTest {
         assertEquals(26, collectionStudiesCount);
     }
 
+    @Test
+    public void countStudiesPerSpeciesAndTypeUnfiltered() throws Exception {
+        QueryResult<SpeciesAndTypeCounts> queryResult = archiveDgvaDBAdaptor
+                .countStudiesPerSpeciesAndType(new QueryOptions());
+
+        assertEquals(1, queryResult.getNumTotalResults());
+        List<Map.Entry<String, Long>> speciesResults = queryResult.getResult().get(0).getSpeciesCounts();
+        assertEquals(23, speciesResults.size());
+        long humanStudiesCount = speciesResults.stream().filter(e -> e.getKey().equals(HUMAN))
+                                               .mapToLong(Map.Entry::getValue).findAny().getAsLong();
+        assertEquals(155, humanStudiesCount);
+
+        List<Map.Entry<String, Long>> typeResults = queryResult.getResult().get(0).getTypeCounts();
+        assertEquals(6, typeResults.size());
+        long controlSetStudiesCount = typeResults.stream().filter(e -> e.getKey().equals(DgvaStudyTestData.CONTROL_SET))
+                                                 .mapToLong(Map.Entry::getValue).findAny().getAsLong();
+        assertEquals(117, controlSetStudiesCount);
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void countFiles() throws Exception {
         archiveDgvaDBAdaptor.countFiles();
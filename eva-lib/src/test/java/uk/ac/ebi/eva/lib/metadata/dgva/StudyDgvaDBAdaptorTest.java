@@ -42,6 +42,7 @@ public class StudyDgvaDBAdaptorTest {
     @Before
     public void setUp() throws Exception {
         DgvaStudyTestData.persistTestData(entityManager);
+        studyDgvaDBAdaptor.refreshSnapshot();
     }
 
     @Test
@@ -28,6 +28,7 @@ import uk.ac.ebi.eva.lib.entities.Project;
 import uk.ac.ebi.eva.lib.entities.Taxonomy;
 import uk.ac.ebi.eva.lib.metadata.FileTestData;
 import uk.ac.ebi.eva.lib.models.Assembly;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.utils.QueryOptions;
 import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
@@ -167,6 +168,23 @@ public class ArchiveEvaproDBAdaptorTest {
         Map.Entry<String, Long> result = countStudiesResult.first();
     }
 
+    @Test
+    public void countStudiesPerTypeFilteringByPartOfTheType() throws Exception {
+        QueryResult<Map.Entry<String, Long>> countStudiesResult = archiveEvaproDBAdaptor
+                .countStudiesPerType(new QueryOptions(QueryOptionsConstants.TYPE, "genome"));
+        assertEquals(1, countStudiesResult.getNumResults());
+        Map.Entry<String, Long> result = countStudiesResult.first();
+        assertEquals(EvaStudyBrowserTestData.WHOLE_GENOME_SEQUENCING, result.getKey());
+        assertEquals(1, result.getValue().longValue());
+    }
+
+    @Test
+    public void countStudiesPerTypeFilteringByTypeWithWildcards() throws Exception {
+        QueryResult<Map.Entry<String, Long>> countStudiesResult = archiveEvaproDBAdaptor
+                .countStudiesPerType(new QueryOptions(QueryOptionsConstants.TYPE, "%"));
+        assertEquals(0, countStudiesResult.getNumResults());
+    }
+
     @Test
     public void countStudiesPerTypeUnfiltered() throws Exception {
         QueryResult<Map.Entry<String, Long>> countStudiesResult = archiveEvaproDBAdaptor
@@ -187,6 +205,29 @@ public class ArchiveEvaproDBAdaptorTest {
         assertEquals(2, exomeSeqStudiesCount);
     }
 
+    @Test
+    public void countStudiesPerSpeciesAndTypeUnfiltered() throws Exception {
+        QueryResult<SpeciesAndTypeCounts> countStudiesResult = archiveEvaproDBAdaptor
+                .countStudiesPerSpeciesAndType(new QueryOptions());
+
+        assertEquals(1, countStudiesResult.getNumResults());
+        List<Map.Entry<String, Long>> speciesResults = countStudiesResult.getResult().get(0).getSpeciesCounts();
+        assertEquals(2, speciesResults.size());
+        long humanStudiesCount = speciesResults.stream().filter(e -> e.getKey().equals(HUMAN))
+                                               .mapToLong(Map.Entry::getValue).findAny().getAsLong();
+        long cowStudiesCount = speciesResults.stream().filter(e -> e.getKey().equals(CATTLE))
+                                             .mapToLong(Map.Entry::getValue).findAny().getAsLong();
+        assertEquals(3, humanStudiesCount);
+        assertEquals(1, cowStudiesCount);
+
+        List<Map.Entry<String, Long>> typeResults = countStudiesResult.getResult().get(0).getTypeCounts();
+        assertEquals(3, typeResults.size());
+        long exomeSeqStudiesCount = typeResults.stream()
+                                               .filter(e -> e.getKey().equals(EvaStudyBrowserTestData.EXOME_SEQUENCING))
+                                               .mapToLong(Map.Entry::getValue).findAny().getAsLong();
+        assertEquals(2, exomeSeqStudiesCount);
+    }
+
     @Test
     public void countFiles() throws Exception {
         QueryResult<Long> queryResult = archiveEvaproDBAdaptor.countFiles();
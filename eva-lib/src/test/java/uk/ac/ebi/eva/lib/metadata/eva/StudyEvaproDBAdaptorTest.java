@@ -48,6 +48,7 @@ public class StudyEvaproDBAdaptorTest {
     @Before
     public void setUp() throws Exception {
         EvaStudyBrowserTestData.persistTestData(entityManager);
+        studyEvaproDBAdaptor.refreshSnapshot();
     }
 
     @After
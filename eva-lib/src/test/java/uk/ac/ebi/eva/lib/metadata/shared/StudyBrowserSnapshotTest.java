@@ -0,0 +1,94 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.lib.metadata.shared;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.lib.models.VariantStudy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StudyBrowserSnapshotTest {
+
+    private StudyBrowserSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        List<String[]> rows = Arrays.asList(new String[]{"S1", "Human", "Homo sapiens", "Exome Sequencing"},
+                                            new String[]{"S2", "Cow", "Bos taurus", "Whole Genome Sequencing"},
+                                            null,
+                                            new String[]{"S3", "Human", "Homo sapiens", null},
+                                            new String[]{"S4", "Human", "Homo sapiens", "Genotyping array"});
+        snapshot = StudyBrowserSnapshot.build(rows, row -> Arrays.asList(row[1], row[2]), row -> row[3],
+                                              row -> buildStudy(row[0]));
+    }
+
+    private VariantStudy buildStudy(String id) {
+        VariantStudy study = new VariantStudy();
+        study.setId(id);
+        return study;
+    }
+
+    @Test
+    public void allStudiesWithoutFilters() {
+        assertEquals(Arrays.asList("S1", "S2", "S3", "S4"), getIds(snapshot.find(null, String::equals, null,
+                                                                                 String::contains)));
+    }
+
+    @Test
+    public void filterBySpecies() {
+        assertEquals(Arrays.asList("S1", "S3", "S4"),
+                     getIds(snapshot.find(Collections.singletonList("Homo sapiens"), String::equals, null,
+                                          String::contains)));
+        assertEquals(Arrays.asList("S1", "S2", "S3", "S4"),
+                     getIds(snapshot.find(Arrays.asList("Cow", "Human"), String::equals, null, String::contains)));
+        assertTrue(snapshot.find(Collections.singletonList("Hum"), String::equals, null, String::contains)
+                           .isEmpty());
+    }
+
+    @Test
+    public void filterByPartOfTheType() {
+        assertEquals(Arrays.asList("S1", "S2"),
+                     getIds(snapshot.find(null, String::equals, Collections.singletonList("Sequencing"),
+                                          String::contains)));
+    }
+
+    @Test
+    public void filterBySpeciesAndType() {
+        assertEquals(Collections.singletonList("S4"),
+                     getIds(snapshot.find(Collections.singletonList("Human"), String::equals,
+                                          Arrays.asList("array", "Whole Genome"), String::contains)));
+    }
+
+    @Test
+    public void emptyFilterMatchesNothing() {
+        assertTrue(snapshot.find(Collections.emptyList(), String::equals, null, String::contains).isEmpty());
+    }
+
+    private List<String> getIds(List<VariantStudy> studies) {
+        return studies.stream().map(VariantStudy::getId).collect(Collectors.toList());
+    }
+}
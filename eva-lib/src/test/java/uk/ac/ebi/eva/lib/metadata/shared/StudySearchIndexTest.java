@@ -0,0 +1,146 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.lib.metadata.shared;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.ebi.eva.lib.models.VariantStudy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StudySearchIndexTest {
+
+    private StudySearchIndex index;
+
+    private Map<StudySearchIndex.Facet, List<String>> filters;
+
+    @Before
+    public void setUp() {
+        List<VariantStudy> studies = Arrays.asList(
+                buildStudy("PRJ1", "Exome sequencing of a cohort", "Human", "Homo sapiens", "GRCh38",
+                           "GCA_000001405.15", "Illumina", "Exome sequencing"),
+                buildStudy("PRJ2", "Genomes of cattle breeds", "Cow", "Bos taurus", "UMD3.1", "GCA_000003055.3",
+                           "Illumina, ABI SOLiD", "Whole genome sequencing"),
+                buildStudy("PRJ3", "Human whole genomes", "Human", "Homo sapiens", "GRCh37", "GCA_000001405.1",
+                           "ABI SOLiD", "Whole genome sequencing"),
+                buildStudy("PRJ4", "Exomes of a human family", "Human", "Homo sapiens", "GRCh38",
+                           "GCA_000001405.15", null, "Exome sequencing, Whole genome sequencing"));
+        index = StudySearchIndex.build(studies);
+        filters = new EnumMap<>(StudySearchIndex.Facet.class);
+    }
+
+    private VariantStudy buildStudy(String id, String name, String commonName, String scientificName,
+                                    String assembly, String assemblyAccession, String platform,
+                                    String experimentType) {
+        VariantStudy study = new VariantStudy(name, id);
+        study.setDescription("Description of " + id);
+        study.setSpeciesCommonName(commonName);
+        study.setSpeciesScientificName(scientificName);
+        study.setAssembly(assembly);
+        study.setAssemblyAccession(assemblyAccession);
+        study.setPlatform(platform);
+        study.setExperimentType(experimentType);
+        return study;
+    }
+
+    @Test
+    public void searchWithoutTextNorFilters() {
+        StudySearchResult result = index.search(null, filters, 0, 10);
+        assertEquals(Arrays.asList("PRJ1", "PRJ2", "PRJ3", "PRJ4"), getIds(result));
+        assertEquals(4, result.getTotalResults());
+    }
+
+    @Test
+    public void searchByTextMatchesAllWordsByPrefix() {
+        assertEquals(Arrays.asList("PRJ1", "PRJ4"), getIds(index.search("exom", filters, 0, 10)));
+        assertEquals(Collections.singletonList("PRJ4"), getIds(index.search("Exomes HUMAN", filters, 0, 10)));
+        assertEquals(Collections.singletonList("PRJ3"), getIds(index.search("description prj3", filters, 0, 10)));
+        assertTrue(index.search("exome cattle", filters, 0, 10).getStudies().isEmpty());
+    }
+
+    @Test
+    public void filterBySpeciesCommonOrScientificName() {
+        filters.put(StudySearchIndex.Facet.SPECIES, Collections.singletonList("bos taurus"));
+        assertEquals(Collections.singletonList("PRJ2"), getIds(index.search(null, filters, 0, 10)));
+
+        filters.put(StudySearchIndex.Facet.SPECIES, Arrays.asList("Cow", "Homo sapiens"));
+        assertEquals(4, index.search(null, filters, 0, 10).getTotalResults());
+    }
+
+    @Test
+    public void filterByMultiValuedFacets() {
+        filters.put(StudySearchIndex.Facet.PLATFORM, Collections.singletonList("ABI SOLiD"));
+        filters.put(StudySearchIndex.Facet.TYPE, Collections.singletonList("Whole genome sequencing"));
+        assertEquals(Arrays.asList("PRJ2", "PRJ3"), getIds(index.search(null, filters, 0, 10)));
+
+        filters.put(StudySearchIndex.Facet.ASSEMBLY, Collections.singletonList("GCA_000001405.1"));
+        assertEquals(Collections.singletonList("PRJ3"), getIds(index.search(null, filters, 0, 10)));
+    }
+
+    @Test
+    public void facetCountsIgnoreTheirOwnFilter() {
+        filters.put(StudySearchIndex.Facet.SPECIES, Collections.singletonList("Human"));
+        StudySearchResult result = index.search("genomes", filters, 0, 10);
+
+        assertEquals(Collections.singletonList("PRJ3"), getIds(result));
+        Map<String, Long> speciesCounts = result.getFacets().get("species");
+        assertEquals(Arrays.asList("Cow", "Human"), Arrays.asList(speciesCounts.keySet().toArray()));
+        assertEquals(1L, speciesCounts.get("Cow").longValue());
+        assertEquals(1L, speciesCounts.get("Human").longValue());
+
+        Map<String, Long> typeCounts = result.getFacets().get("type");
+        assertEquals(Collections.singletonMap("Whole genome sequencing", 1L), typeCounts);
+        assertTrue(result.getFacets().get("scope").isEmpty());
+    }
+
+    @Test
+    public void facetValuesAreSortedByCount() {
+        Map<String, Long> typeCounts = index.search(null, filters, 0, 10).getFacets().get("type");
+        assertEquals(Arrays.asList("Whole genome sequencing", "Exome sequencing"),
+                     Arrays.asList(typeCounts.keySet().toArray()));
+        assertEquals(3L, typeCounts.get("Whole genome sequencing").longValue());
+        assertEquals(2L, typeCounts.get("Exome sequencing").longValue());
+    }
+
+    @Test
+    public void paging() {
+        StudySearchResult result = index.search(null, filters, 1, 3);
+        assertEquals(Collections.singletonList("PRJ4"), getIds(result));
+        assertEquals(4, result.getTotalResults());
+        assertTrue(index.search(null, filters, 2, 3).getStudies().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativePageNumber() {
+        index.search(null, filters, -1, 10);
+    }
+
+    private List<String> getIds(StudySearchResult result) {
+        return result.getStudies().stream().map(VariantStudy::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.ebi.eva.server;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the limits of the classes and methods annotated with @Bulkhead. It runs after the rate limits, so requests rejected by
+ * those never take a slot.
+ *
+ * A request takes at most one slot of each group: web services that call another one of the same group, like the
+ * gene web service calls the region one, run in the slot that the request already has.
+ */
+@Aspect
+@Component
+@Order(2)
+public class BulkheadAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadAspect.class);
+
+    private static final String PROPERTY_PREFIX = "eva.bulkhead.";
+
+    private static final int DEFAULT_QUEUE_TIMEOUT_MS = 1000;
+
+    private final Map<BulkheadGroup, Compartment> compartments = new EnumMap<>(BulkheadGroup.class);
+
+    private final Map<BulkheadGroup, Counter> acceptedCounters = new EnumMap<>(BulkheadGroup.class);
+
+    private final Map<BulkheadGroup, Counter> rejectedCounters = new EnumMap<>(BulkheadGroup.class);
+
+    private final ThreadLocal<Set<BulkheadGroup>> heldGroups = ThreadLocal.withInitial(
+            () -> EnumSet.noneOf(BulkheadGroup.class));
+
+    public BulkheadAspect(Environment environment, MeterRegistry meterRegistry) {
+        for (BulkheadGroup group : BulkheadGroup.values()) {
+            String prefix = PROPERTY_PREFIX + group.getName() + ".";
+            Compartment compartment = new Compartment(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, group.getDefaultMaxConcurrent()),
+                    environment.getProperty(prefix + "max-queue", Integer.class, group.getDefaultMaxQueue()),
+                    environment.getProperty(prefix + "queue-timeout-ms", Integer.class, DEFAULT_QUEUE_TIMEOUT_MS));
+            compartments.put(group, compartment);
+
+            Gauge.builder("eva.bulkhead.queue", compartment, Compartment::getQueued)
+                 .tag("group", group.getName())
+                 .description("Requests waiting for a slot in the bulkhead")
+                 .register(meterRegistry);
+            Gauge.builder("eva.bulkhead.active", compartment, Compartment::getActive)
+                 .tag("group", group.getName())
+                 .description("Requests running in the bulkhead")
+                 .register(meterRegistry);
+            acceptedCounters.put(group, Counter.builder("eva.bulkhead.requests")
+                                               .tag("group", group.getName())
+                                               .tag("result", "accepted")
+                                               .description("Requests to the web services with a bulkhead")
+                                               .register(meterRegistry));
+            rejectedCounters.put(group, Counter.builder("eva.bulkhead.requests")
+                                               .tag("group", group.getName())
+                                               .tag("result", "rejected")
+                                               .description("Requests to the web services with a bulkhead")
+                                               .register(meterRegistry));
+        }
+    }
+
+    /**
+     * The request handler methods of the web services. Other methods of the controllers, like their exception
+     * handlers, must not wait for a slot: the request that they answer has already taken one or been rejected.
+     */
+    @Pointcut("@annotation(org.springframework.web.bind.annotation.RequestMapping)"
+            + " || @annotation(org.springframework.web.bind.annotation.GetMapping)"
+            + " || @annotation(org.springframework.web.bind.annotation.PostMapping)")
+    public void requestHandler() {
+    }
+
+    @Pointcut("(@within(uk.ac.ebi.eva.server.Bulkhead) || @annotation(uk.ac.ebi.eva.server.Bulkhead))"
+            + " && requestHandler()")
+    public void bulkheadRequestHandler() {
+    }
+
+    /**
+     * @return the group of the annotation of the method, or of its class if the method has none
+     */
+    static BulkheadGroup getGroup(JoinPoint jp) {
+        Method method = ((MethodSignature) jp.getSignature()).getMethod();
+        Bulkhead bulkhead = AnnotationUtils.findAnnotation(method, Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotationUtils.findAnnotation(method.getDeclaringClass(), Bulkhead.class);
+        }
+        return bulkhead.value();
+    }
+
+    @Around("bulkheadRequestHandler()")
+    public Object bulkhead(ProceedingJoinPoint jp) throws Throwable {
+        BulkheadGroup group = getGroup(jp);
+        Set<BulkheadGroup> groupsHeldByThread = heldGroups.get();
+        if (groupsHeldByThread.contains(group)) {
+            return jp.proceed();
+        }
+        Compartment compartment = compartments.get(group);
+        if (!compartment.enter()) {
+            rejectedCounters.get(group).increment();
+            logger.warn("Bulkhead {} is full, rejecting request to {}", group.getName(), jp.getSignature().getName());
+            throw new BulkheadFullException("The server is too busy to answer this request. Please try again later.");
+        }
+        acceptedCounters.get(group).increment();
+        groupsHeldByThread.add(group);
+        try {
+            return jp.proceed();
+        } finally {
+            groupsHeldByThread.remove(group);
+            compartment.leave();
+        }
+    }
+
+    static class Compartment {
+
+        private final Semaphore slots;
+
+        private final int maxConcurrent;
+
+        private final int maxQueue;
+
+        private final long queueTimeoutMs;
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        Compartment(int maxConcurrent, int maxQueue, long queueTimeoutMs) {
+            this.slots = new Semaphore(maxConcurrent);
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+
+        /**
+         * @return whether the request got a slot, either straight away or after waiting in the queue
+         */
+        boolean enter() {
+            if (slots.tryAcquire()) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                return slots.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void leave() {
+            slots.release();
+        }
+
+        int getQueued() {
+            return queued.get();
+        }
+
+        int getActive() {
+            return maxConcurrent - slots.availablePermits();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.ebi.eva.server;
+
+/**
+ * Groups of web services that share a bulkhead, so that a burst of slow queries in a group can't use all the database
+ * connections and stall the rest. The limits of each group can be changed with the properties
+ * eva.bulkhead.{name}.max-concurrent, eva.bulkhead.{name}.max-queue and eva.bulkhead.{name}.queue-timeout-ms, and the
+ * time limit and read concern of their database queries with eva.query.{name}.max-time-ms and
+ * eva.query.{name}.read-concern.
+ *
+ * The variant databases are only written when a release is loaded, so the bulk variant queries read the local data of
+ * the server by default, instead of waiting for a majority of the replica set to acknowledge it.
+ */
+public enum BulkheadGroup {
+
+    REGION_SCAN("region-scan", 16, 32, "local"),
+
+    // Exports read a whole cursor in a single request, so a few of them would hold the region-scan slots for minutes
+    REGION_EXPORT("region-export", 4, 4, "local"),
+
+    POINT_LOOKUP("point-lookup", 32, 64, null),
+
+    BEACON("beacon", 16, 64, null),
+
+    METADATA("metadata", 16, 64, null);
+
+    private final String name;
+
+    private final int defaultMaxConcurrent;
+
+    private final int defaultMaxQueue;
+
+    private final String defaultReadConcern;
+
+    /**
+     * @param defaultReadConcern null to use the read concern of the MongoClient
+     */
+    BulkheadGroup(String name, int defaultMaxConcurrent, int defaultMaxQueue, String defaultReadConcern) {
+        this.name = name;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxQueue = defaultMaxQueue;
+        this.defaultReadConcern = defaultReadConcern;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    public int getDefaultMaxQueue() {
+        return defaultMaxQueue;
+    }
+
+    public String getDefaultReadConcern() {
+        return defaultReadConcern;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server;
+
+/**
+ * How the total number of results is calculated in paged endpoints, selected with the "count" request parameter.
+ *
+ * With NONE and ESTIMATE the reported total is a lower bound: the results up to the requested page, plus one if it
+ * is known that there are more. That is enough to decide whether there is a next page, but not which one is the
+ * last one.
+ */
+public enum CountMode {
+
+    /**
+     * Don't count, the total is inferred from the size of the returned page.
+     */
+    NONE,
+
+    /**
+     * Count only up to one result past the requested page.
+     */
+    ESTIMATE,
+
+    /**
+     * Count every result.
+     */
+    EXACT;
+
+    public static final String COUNT_PARAMETER_DESCRIPTION = "How to calculate the total number of results: " +
+            "'exact' (default), 'estimate' (counts only up to the end of the requested page) or 'none'. With " +
+            "'estimate' and 'none' the total is a lower bound and there is no link to the last page.";
+
+    /**
+     * @param value case-insensitive name of the mode. Null means EXACT, and so do "true" and "false", which were the
+     *              only values of the v1 "count" query option
+     */
+    public static CountMode parse(String value) throws IllegalArgumentException {
+        if (value == null || value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return EXACT;
+        }
+        for (CountMode countMode : values()) {
+            if (countMode.name().equalsIgnoreCase(value)) {
+                return countMode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid count mode '" + value + "', please use one of none, estimate or" +
+                                                   " exact");
+    }
+
+    /**
+     * Maximum number of results that need to be counted in ESTIMATE mode to know whether there is a page after the
+     * one requested.
+     */
+    public static long getEstimateLimit(long offset, int pageSize) {
+        return offset + pageSize + 1;
+    }
+
+    /**
+     * Lower bound of the total when only the requested page has been retrieved: if the page is full, there may be
+     * more results.
+     */
+    public static long getLowerBound(long offset, int pageSize, int resultsInPage) {
+        return offset + resultsInPage + (resultsInPage >= pageSize ? 1 : 0);
+    }
+}
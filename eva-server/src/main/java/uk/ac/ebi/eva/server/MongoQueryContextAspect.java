@@ -0,0 +1,100 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server;
+
+import com.mongodb.ReadConcern;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import uk.ac.ebi.eva.lib.configuration.SpringDataMongoDbProperties;
+import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
+import uk.ac.ebi.eva.lib.eva_utils.MongoQueryContext;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sets the time that the database queries of each request can run in the server, by the bulkhead group of the web
+ * service. It's the property eva.query.{name}.max-time-ms of the group, or spring.data.mongodb.max-time-ms if the
+ * group has none. Queries have no limit if neither is set.
+ *
+ * The read concern of the queries is set the same way, with eva.query.{name}.read-concern. Groups without one use
+ * the read concern of the MongoClient.
+ */
+@Aspect
+@Component
+@Order(3)
+public class MongoQueryContextAspect {
+
+    private static final String PROPERTY_PREFIX = "eva.query.";
+
+    private final Map<BulkheadGroup, Long> maxTimesMs = new EnumMap<>(BulkheadGroup.class);
+
+    private final Map<BulkheadGroup, ReadConcern> readConcerns = new EnumMap<>(BulkheadGroup.class);
+
+    public MongoQueryContextAspect(Environment environment, SpringDataMongoDbProperties springDataMongoDbProperties) {
+        for (BulkheadGroup group : BulkheadGroup.values()) {
+            Long maxTimeMs = environment.getProperty(PROPERTY_PREFIX + group.getName() + ".max-time-ms", Long.class,
+                                                     springDataMongoDbProperties.getMaxTimeMs());
+            if (maxTimeMs != null) {
+                maxTimesMs.put(group, maxTimeMs);
+            }
+            String readConcern = environment.getProperty(PROPERTY_PREFIX + group.getName() + ".read-concern",
+                                                         group.getDefaultReadConcern());
+            if (readConcern != null) {
+                readConcerns.put(group, DBAdaptorConnector.getReadConcern(readConcern));
+            }
+        }
+    }
+
+    @Around("uk.ac.ebi.eva.server.BulkheadAspect.bulkheadRequestHandler()")
+    public Object setQueryContext(ProceedingJoinPoint jp) throws Throwable {
+        BulkheadGroup group = BulkheadAspect.getGroup(jp);
+        Long previousMaxTimeMs = MongoQueryContext.getMaxTimeMsForCurrentThread();
+        ReadConcern previousReadConcern = MongoQueryContext.getReadConcernForCurrentThread();
+        setOrClearMaxTimeMs(maxTimesMs.get(group));
+        setOrClearReadConcern(readConcerns.get(group));
+        try {
+            return jp.proceed();
+        } finally {
+            setOrClearMaxTimeMs(previousMaxTimeMs);
+            setOrClearReadConcern(previousReadConcern);
+        }
+    }
+
+    private static void setOrClearMaxTimeMs(Long maxTimeMs) {
+        if (maxTimeMs == null) {
+            MongoQueryContext.clearMaxTimeMsForCurrentThread();
+        } else {
+            MongoQueryContext.setMaxTimeMsForCurrentThread(maxTimeMs);
+        }
+    }
+
+    private static void setOrClearReadConcern(ReadConcern readConcern) {
+        if (readConcern == null) {
+            MongoQueryContext.clearReadConcernForCurrentThread();
+        } else {
+            MongoQueryContext.setReadConcernForCurrentThread(readConcern);
+        }
+    }
+}
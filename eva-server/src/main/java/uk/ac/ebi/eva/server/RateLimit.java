@@ -24,6 +24,10 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Limits the rate of requests of each client to a web service method. Every method has its own limits, and the last
+ * parameter of the method must be the HttpServletRequest, which identifies the client.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
@@ -33,4 +37,14 @@ public @interface RateLimit {
      * @return rate limit in queries per second
      */
     int value();
+
+    /**
+     * @return number of queries that can be made at once after being idle, or 0 to allow as many as "value"
+     */
+    int burst() default 0;
+
+    /**
+     * @return estimator of the permits used by each request, so "value" is the number of the cheapest requests
+     */
+    Class<? extends RateLimitCost> cost() default UnitRateLimitCost.class;
 }
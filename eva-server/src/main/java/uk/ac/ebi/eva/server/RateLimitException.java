@@ -20,8 +20,15 @@ package uk.ac.ebi.eva.server;
 
 public class RateLimitException extends Exception {
 
-    public RateLimitException(String message) {
+    private final long retryAfterSeconds;
+
+    public RateLimitException(String message, long retryAfterSeconds) {
         super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
     }
 
 }
@@ -18,21 +18,43 @@
 
 package uk.ac.ebi.eva.server;
 
-import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.aspectj.lang.annotation.Before;
 import org.slf4j.Logger;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 
+/**
+ * Applies the limits of the methods annotated with @RateLimit, with a token bucket per method and client. Requests
+ * over the limit are rejected straight away, telling the client how long to wait. Each request takes as many permits
+ * as its estimated cost, even if that is more than the capacity of the bucket, and the costs are published as
+ * metrics to tune them.
+ *
+ * Buckets of clients that have not made requests for a while are evicted, and so are the least recently used ones
+ * when there are too many clients, so the memory used doesn't depend on the number of different clients. An evicted
+ * client gets a full bucket in its next request.
+ *
+ * Clients are identified by the address of the connection, unless the server is behind proxies or load balancers,
+ * whose number must be set in eva.rate-limit.trusted-proxies. Each of them appends the address that connected to it
+ * to the X-Forwarded-For header, so the client is the entry added by the outermost trusted proxy. The entries before
+ * that one are sent by the client, which could change them in every request to get a new bucket.
+ */
 @Aspect
 @Component
+@Order(1)
 public class RateLimiterAspect {
 
     private static final String RATE_LIMIT_PRECONDITION_FAIL = "Context HttpServletRequest object " +
@@ -40,41 +62,104 @@ public class RateLimiterAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimiterAspect.class);
 
-    private final int RATE_LIMIT_ACQUIRE_TIMEOUT_IN_SECONDS = 10;
+    private static final String COST_METRIC = "eva.rate-limit.cost";
+
+    private static final String REQUESTS_METRIC = "eva.rate-limit.requests";
+
+    private final Cache<String, TokenBucket> buckets;
 
-    private final ConcurrentHashMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    private final int trustedProxies;
+
+    private final ApplicationContext applicationContext;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimiterAspect(ApplicationContext applicationContext, MeterRegistry meterRegistry,
+                             @Value("${eva.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${eva.rate-limit.max-clients:100000}") long maxClients,
+                             @Value("${eva.rate-limit.idle-expiry-seconds:600}") long idleExpirySeconds,
+                             @Value("${eva.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        this.applicationContext = applicationContext;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.trustedProxies = trustedProxies;
+        buckets = CacheBuilder.newBuilder()
+                              .maximumSize(maxClients)
+                              .expireAfterAccess(idleExpirySeconds, TimeUnit.SECONDS)
+                              .build();
+    }
 
     @Before("@annotation(limit)")
     public void rateLimit(JoinPoint jp, RateLimit limit) throws RateLimitException {
-        RateLimiter limiter = limiters.computeIfAbsent(getIPAddress(jp), createLimiter(limit));
-        boolean acquired = limiter.tryAcquire(RATE_LIMIT_ACQUIRE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        if (!enabled) {
+            return;
+        }
+        long nowNanos = System.nanoTime();
+        HttpServletRequest request = getRequest(jp);
+        String key = jp.getSignature().toLongString() + " " + getIPAddress(request);
+        TokenBucket bucket;
+        try {
+            bucket = buckets.get(key, () -> createBucket(limit, nowNanos));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        String endpoint = jp.getSignature().getDeclaringType().getSimpleName() + "." + jp.getSignature().getName();
+        double cost = applicationContext.getBean(limit.cost()).estimate(request);
+        DistributionSummary.builder(COST_METRIC)
+                           .tag("endpoint", endpoint)
+                           .description("Estimated cost of the requests to rate limited endpoints, in permits")
+                           .register(meterRegistry)
+                           .record(cost);
+
+        long waitNanos = bucket.tryAcquire(cost, nowNanos);
+        boolean acquired = waitNanos == 0;
+        Counter.builder(REQUESTS_METRIC)
+               .tag("endpoint", endpoint)
+               .tag("result", acquired ? "accepted" : "rejected")
+               .description("Requests to rate limited endpoints")
+               .register(meterRegistry)
+               .increment();
         if (!acquired) {
-            logger.error("Could not acquire rate limit permission");
-            throw new RateLimitException(String.format("Rate limit exceeded. Please limit rate to %d requests/second.",
-                                                       limit.value()));
+            logger.debug("Rate limit exceeded for {} with a request of cost {}", key, cost);
+            String message = String.format("Rate limit exceeded. Please limit rate to %d requests/second, this " +
+                                                   "request counts as %.1f requests.", limit.value(), cost);
+            throw new RateLimitException(message,
+                                         Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
         }
         logger.debug("Acquired rate limit permission");
     }
 
-    private Function<String, RateLimiter> createLimiter(RateLimit limit) {
-        return name -> RateLimiter.create(limit.value());
+    private TokenBucket createBucket(RateLimit limit, long nowNanos) {
+        return new TokenBucket(limit.value(), getCapacity(limit), nowNanos);
     }
 
-    private String getIPAddress(JoinPoint jp) {
+    private int getCapacity(RateLimit limit) {
+        return limit.burst() > 0 ? limit.burst() : limit.value();
+    }
+
+    private HttpServletRequest getRequest(JoinPoint jp) {
         Object[] args = jp.getArgs();
         if (args.length <= 0) {
             throw new IllegalArgumentException(RATE_LIMIT_PRECONDITION_FAIL);
         }
         Object lastParam = args[args.length - 1];
-        // Get client IP address
-        // To account for clients which are behind a proxy server or a load balancer,
-        // use the client IP address via the HTTP request header X-Forwarded-For (XFF).
         if (lastParam instanceof HttpServletRequest) {
-            HttpServletRequest request = (HttpServletRequest) lastParam;
-            String ipAddress = request.getHeader("X-FORWARDED-FOR");
-            return ipAddress == null ? request.getRemoteAddr() : ipAddress;
+            return (HttpServletRequest) lastParam;
         } else {
             throw new IllegalArgumentException(RATE_LIMIT_PRECONDITION_FAIL);
         }
     }
+
+    private String getIPAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-FORWARDED-FOR");
+        if (trustedProxies <= 0 || forwardedFor == null) {
+            return request.getRemoteAddr();
+        }
+        // The last entry was added by the nearest proxy, and each trusted proxy before it added one more
+        String[] addresses = forwardedFor.split(",");
+        return addresses[Math.max(0, addresses.length - trustedProxies)].trim();
+    }
 }
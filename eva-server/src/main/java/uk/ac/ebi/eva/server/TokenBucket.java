@@ -0,0 +1,58 @@
+/*
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package uk.ac.ebi.eva.server;
+
+/**
+ * Token bucket that holds up to "capacity" permits and is refilled at a constant rate. Unlike Guava's RateLimiter,
+ * it never blocks, and it tells how long to wait when there are not enough permits.
+ *
+ * A request for more permits than the capacity is accepted when the bucket is full, and leaves it in debt: the
+ * permits are still taken, so the following requests wait until the whole cost has been refilled.
+ */
+class TokenBucket {
+
+    private final double capacity;
+
+    private final double permitsPerNanosecond;
+
+    private double permits;
+
+    private long lastRefillNanos;
+
+    TokenBucket(double permitsPerSecond, double capacity, long nowNanos) {
+        this.capacity = capacity;
+        this.permitsPerNanosecond = permitsPerSecond / 1e9;
+        this.permits = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * @return 0 if the permits were taken, or else the nanoseconds until there will be enough of them
+     */
+    synchronized long tryAcquire(double requestedPermits, long nowNanos) {
+        permits = Math.min(capacity, permits + (nowNanos - lastRefillNanos) * permitsPerNanosecond);
+        lastRefillNanos = nowNanos;
+        double requiredPermits = Math.min(requestedPermits, capacity);
+        if (permits >= requiredPermits) {
+            permits -= requestedPermits;
+            return 0;
+        }
+        return (long) Math.ceil((requiredPermits - permits) / permitsPerNanosecond);
+    }
+}
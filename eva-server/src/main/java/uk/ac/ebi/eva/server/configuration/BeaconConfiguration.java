@@ -21,9 +21,11 @@ package uk.ac.ebi.eva.server.configuration;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import uk.ac.ebi.eva.server.ws.ga4gh.beaconv2.ChromosomeConverter;
 
 @Configuration
+@EnableScheduling
 public class BeaconConfiguration {
 
     @Bean
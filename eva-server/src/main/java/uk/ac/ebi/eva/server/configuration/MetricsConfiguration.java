@@ -0,0 +1,74 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDbFactory;
+
+import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.services.ArchiveMetadataCache;
+import uk.ac.ebi.eva.server.services.FeatureCoordinatesCache;
+
+/**
+ * Metrics of the server internals, published through the actuator "metrics" endpoint.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder mongoDatabaseCacheMetrics(MongoDbFactory mongoDbFactory) {
+        return registry -> {
+            if (!(mongoDbFactory instanceof MultiMongoDbFactory)) {
+                return;
+            }
+            MultiMongoDbFactory multiMongoDbFactory = (MultiMongoDbFactory) mongoDbFactory;
+            FunctionCounter.builder("eva.mongo.database.cache", multiMongoDbFactory,
+                                    MultiMongoDbFactory::getDatabaseCacheHits)
+                           .tag("result", "hit")
+                           .description("Database lookups answered from the cache of database handles")
+                           .register(registry);
+            FunctionCounter.builder("eva.mongo.database.cache", multiMongoDbFactory,
+                                    MultiMongoDbFactory::getDatabaseCacheMisses)
+                           .tag("result", "miss")
+                           .description("Database lookups that had to create a database handle")
+                           .register(registry);
+            Gauge.builder("eva.mongo.database.cache.size", multiMongoDbFactory,
+                          MultiMongoDbFactory::getDatabaseCacheSize)
+                 .description("Number of cached database handles")
+                 .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder featureCoordinatesCacheMetrics(FeatureCoordinatesCache featureCoordinatesCache) {
+        return registry -> GuavaCacheMetrics.monitor(registry, featureCoordinatesCache.getCache(),
+                                                     "featureCoordinates");
+    }
+
+    @Bean
+    public MeterBinder archiveMetadataCacheMetrics(ArchiveMetadataCache archiveMetadataCache) {
+        return registry -> GuavaCacheMetrics.monitor(registry, archiveMetadataCache.getCache(), "archiveMetadata");
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbContextTaskDecorator;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread pool used to run database queries of a single request in parallel. When the pool and its queue are full,
+ * tasks run in the calling thread, so a busy server degrades to running the queries one after another.
+ *
+ * Tasks use the database selected in MultiMongoDbFactory by the thread that submitted them.
+ */
+@Configuration
+public class QueryExecutorConfiguration {
+
+    public static final String VARIANT_QUERY_EXECUTOR = "variantQueryExecutor";
+
+    @Bean(name = VARIANT_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor variantQueryExecutor(@Value("${eva.query-executor.pool-size:8}") int poolSize,
+                                                       @Value("${eva.query-executor.queue-capacity:64}")
+                                                               int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("variant-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new MultiMongoDbContextTaskDecorator());
+        return executor;
+    }
+}
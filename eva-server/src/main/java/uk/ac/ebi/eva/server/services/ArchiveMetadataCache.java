@@ -0,0 +1,172 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import uk.ac.ebi.eva.lib.metadata.ArchiveDBAdaptor;
+import uk.ac.ebi.eva.lib.metadata.eva.ArchiveEvaproDBAdaptor;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
+import uk.ac.ebi.eva.lib.utils.QueryOptions;
+import uk.ac.ebi.eva.lib.utils.QueryOptionsConstants;
+import uk.ac.ebi.eva.lib.utils.QueryResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the counts and species lists of the archive, which only change when a study is loaded, but are requested by
+ * most pages of the website.
+ *
+ * All the entries expire together, when the time to live has passed since the last expiration, or when they are
+ * invalidated.
+ */
+@Service
+public class ArchiveMetadataCache implements ArchiveDBAdaptor {
+
+    private static final String COUNT_STUDIES = "countStudies";
+
+    private static final String COUNT_STUDIES_PER_SPECIES = "countStudiesPerSpecies";
+
+    private static final String COUNT_STUDIES_PER_TYPE = "countStudiesPerType";
+
+    private static final String COUNT_STUDIES_PER_SPECIES_AND_TYPE = "countStudiesPerSpeciesAndType";
+
+    private static final String COUNT_FILES = "countFiles";
+
+    private static final String COUNT_SPECIES = "countSpecies";
+
+    private static final String BROWSABLE_SPECIES = "browsableSpecies";
+
+    private static final String ACCESSIONED_SPECIES = "accessionedSpecies";
+
+    private final ArchiveDBAdaptor archiveDBAdaptor;
+
+    private final Cache<List<Object>, QueryResult> cache;
+
+    private final long ttlMillis;
+
+    private volatile long versionTimestamp;
+
+    public ArchiveMetadataCache(ArchiveEvaproDBAdaptor archiveEvaproDBAdaptor,
+                                @Value("${eva.archive-cache.max-size:1000}") long maxSize,
+                                @Value("${eva.archive-cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.archiveDBAdaptor = archiveEvaproDBAdaptor;
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .recordStats()
+                                 .build();
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.versionTimestamp = System.currentTimeMillis();
+    }
+
+    @Override
+    public QueryResult countStudies() {
+        return get(Arrays.asList(COUNT_STUDIES), archiveDBAdaptor::countStudies);
+    }
+
+    @Override
+    public QueryResult countStudiesPerSpecies(QueryOptions queryOptions) {
+        return get(Arrays.asList(COUNT_STUDIES_PER_SPECIES, queryOptions.get(QueryOptionsConstants.SPECIES),
+                                 queryOptions.get(QueryOptionsConstants.TYPE)),
+                   () -> archiveDBAdaptor.countStudiesPerSpecies(queryOptions));
+    }
+
+    @Override
+    public QueryResult countStudiesPerType(QueryOptions queryOptions) {
+        return get(Arrays.asList(COUNT_STUDIES_PER_TYPE, queryOptions.get(QueryOptionsConstants.SPECIES),
+                                 queryOptions.get(QueryOptionsConstants.TYPE)),
+                   () -> archiveDBAdaptor.countStudiesPerType(queryOptions));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public QueryResult<SpeciesAndTypeCounts> countStudiesPerSpeciesAndType(QueryOptions queryOptions) {
+        return get(Arrays.asList(COUNT_STUDIES_PER_SPECIES_AND_TYPE, queryOptions.get(QueryOptionsConstants.SPECIES),
+                                 queryOptions.get(QueryOptionsConstants.TYPE)),
+                   () -> archiveDBAdaptor.countStudiesPerSpeciesAndType(queryOptions));
+    }
+
+    @Override
+    public QueryResult countFiles() {
+        return get(Arrays.asList(COUNT_FILES), archiveDBAdaptor::countFiles);
+    }
+
+    @Override
+    public QueryResult countSpecies() {
+        return get(Arrays.asList(COUNT_SPECIES), archiveDBAdaptor::countSpecies);
+    }
+
+    @Override
+    public QueryResult getBrowsableSpecies() {
+        return get(Arrays.asList(BROWSABLE_SPECIES), archiveDBAdaptor::getBrowsableSpecies);
+    }
+
+    @Override
+    public QueryResult getAccessionedSpecies() {
+        return get(Arrays.asList(ACCESSIONED_SPECIES), archiveDBAdaptor::getAccessionedSpecies);
+    }
+
+    /**
+     * Removes every entry, e.g. after loading a new study.
+     */
+    public synchronized void invalidateAll() {
+        cache.invalidateAll();
+        versionTimestamp = System.currentTimeMillis();
+    }
+
+    public long getVersionTimestamp() {
+        return versionTimestamp;
+    }
+
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    private void expireIfStale() {
+        if (System.currentTimeMillis() - versionTimestamp >= ttlMillis) {
+            synchronized (this) {
+                if (System.currentTimeMillis() - versionTimestamp >= ttlMillis) {
+                    invalidateAll();
+                }
+            }
+        }
+    }
+
+    private QueryResult get(List<Object> key, Callable<QueryResult> loader) {
+        expireIfStale();
+        try {
+            return cache.get(key, loader);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import uk.ac.ebi.eva.lib.metadata.dgva.StudyDgvaDBAdaptor;
+import uk.ac.ebi.eva.lib.metadata.eva.StudyEvaproDBAdaptor;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint to check the cache of the archive metadata and invalidate it after loading a study, together with
+ * the snapshots of the study browsers. Like other actuator endpoints, it must be listed in
+ * management.endpoints.web.exposure.include to be available over HTTP.
+ */
+@Component
+@Endpoint(id = "archivecache")
+public class ArchiveMetadataCacheEndpoint {
+
+    @Autowired
+    private ArchiveMetadataCache archiveMetadataCache;
+
+    @Autowired
+    private StudyEvaproDBAdaptor studyEvaproDBAdaptor;
+
+    @Autowired
+    private StudyDgvaDBAdaptor studyDgvaDBAdaptor;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("size", archiveMetadataCache.getCache().size());
+        summary.put("version", Instant.ofEpochMilli(archiveMetadataCache.getVersionTimestamp()).toString());
+        summary.put("stats", archiveMetadataCache.getCache().stats().toString());
+        return summary;
+    }
+
+    @WriteOperation
+    public Map<String, Object> invalidate() {
+        archiveMetadataCache.invalidateAll();
+        studyEvaproDBAdaptor.refreshSnapshot();
+        studyDgvaDBAdaptor.refreshSnapshot();
+        return summary();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import java.util.Set;
+
+/**
+ * Fields of a variant that identify it in a beacon query by position and allele, and the studies it was found in.
+ */
+public class BeaconAllele {
+
+    private final String chromosome;
+
+    private final long start;
+
+    private final String alternate;
+
+    private final Set<String> studyIds;
+
+    public BeaconAllele(String chromosome, long start, String alternate, Set<String> studyIds) {
+        this.chromosome = chromosome;
+        this.start = start;
+        this.alternate = alternate;
+        this.studyIds = studyIds;
+    }
+
+    public String getChromosome() {
+        return chromosome;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public String getAlternate() {
+        return alternate;
+    }
+
+    public Set<String> getStudyIds() {
+        return studyIds;
+    }
+}
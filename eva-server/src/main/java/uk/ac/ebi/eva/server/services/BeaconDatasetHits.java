@@ -0,0 +1,54 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Datasets that contain the variants matching a beacon query, identified as "studyId_fileId", and the minor allele
+ * frequency of the variants in each of them, when the minor allele is the reference or the alternate.
+ */
+public class BeaconDatasetHits {
+
+    private final boolean exists;
+
+    private final Set<String> datasetIds;
+
+    private final Map<String, Float> frequencies;
+
+    public BeaconDatasetHits(boolean exists, Set<String> datasetIds, Map<String, Float> frequencies) {
+        this.exists = exists;
+        this.datasetIds = datasetIds;
+        this.frequencies = frequencies;
+    }
+
+    public boolean isExists() {
+        return exists;
+    }
+
+    public Set<String> getDatasetIds() {
+        return datasetIds;
+    }
+
+    public Map<String, Float> getFrequencies() {
+        return frequencies;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import uk.ac.ebi.eva.commons.core.models.Region;
+import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
+
+import java.util.List;
+
+/**
+ * Variants of a beacon query: those that start within startRange, end within endRange and match the filters. Both
+ * ranges are in the same chromosome.
+ */
+public class BeaconQuery {
+
+    private final Region startRange;
+
+    private final Region endRange;
+
+    private final List<VariantRepositoryFilter> filters;
+
+    public BeaconQuery(Region startRange, Region endRange, List<VariantRepositoryFilter> filters) {
+        this.startRange = startRange;
+        this.endRange = endRange;
+        this.filters = filters;
+    }
+
+    public Region getStartRange() {
+        return startRange;
+    }
+
+    public Region getEndRange() {
+        return endRange;
+    }
+
+    public List<VariantRepositoryFilter> getFilters() {
+        return filters;
+    }
+}
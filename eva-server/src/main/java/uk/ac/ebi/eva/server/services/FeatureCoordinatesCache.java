@@ -0,0 +1,104 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import uk.ac.ebi.eva.commons.core.models.FeatureCoordinates;
+import uk.ac.ebi.eva.commons.mongodb.services.FeatureService;
+import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the coordinates of features (genes, transcripts...) found by identifier or name. They only change when a new
+ * database release is loaded, but are looked up on every request of a gene, including every page of its variants.
+ *
+ * Entries are per database, so the database must be selected with
+ * MultiMongoDbFactory.setDatabaseNameForCurrentThread before using this service.
+ */
+@Service
+public class FeatureCoordinatesCache {
+
+    private static final String BY_ID_OR_NAME = "idOrName";
+
+    private static final String BY_GENE_IDS_OR_GENE_NAMES = "geneIdsOrGeneNames";
+
+    @Autowired
+    private FeatureService service;
+
+    private final Cache<List<Object>, List<FeatureCoordinates>> cache;
+
+    public FeatureCoordinatesCache(@Value("${eva.feature-cache.max-size:10000}") long maxSize,
+                                   @Value("${eva.feature-cache.ttl-seconds:86400}") long ttlSeconds) {
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                            .recordStats()
+                            .build();
+    }
+
+    public List<FeatureCoordinates> findByIdOrName(String idOrName) {
+        List<Object> key = Arrays.asList(MultiMongoDbFactory.getDatabaseNameForCurrentThread(), BY_ID_OR_NAME,
+                                         idOrName);
+        return get(key, () -> service.findByIdOrName(idOrName, idOrName));
+    }
+
+    public List<FeatureCoordinates> findAllByGeneIdsOrGeneNames(List<String> geneIdsOrNames) {
+        List<Object> key = Arrays.asList(MultiMongoDbFactory.getDatabaseNameForCurrentThread(),
+                                         BY_GENE_IDS_OR_GENE_NAMES, new ArrayList<>(geneIdsOrNames));
+        return get(key, () -> service.findAllByGeneIdsOrGeneNames(geneIdsOrNames, geneIdsOrNames));
+    }
+
+    /**
+     * Removes every entry, e.g. after loading a new release of the features.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    private List<FeatureCoordinates> get(List<Object> key, Callable<List<FeatureCoordinates>> loader) {
+        try {
+            return cache.get(key, () -> Collections.unmodifiableList(new ArrayList<>(loader.call())));
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import uk.ac.ebi.eva.commons.core.models.AnnotationMetadata;
+import uk.ac.ebi.eva.commons.core.models.Region;
+import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
+import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundException;
+import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+import uk.ac.ebi.eva.server.configuration.QueryExecutorConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs queries with many regions as one query per chromosome, in parallel, instead of a single query with a very large
+ * "$or" clause.
+ *
+ * Results are sorted by chromosome and start, like in a single query. As every batch has the regions of a different
+ * chromosome, the batches don't share variants, the total is the sum of the counts of each batch, and merging the
+ * results in genomic order means taking the batches in chromosome order. The counts also tell which batches hold the
+ * requested page, so only those are queried, starting at the right offset.
+ */
+@Service
+public class RegionFanOutService {
+
+    @Autowired
+    private VariantWithSamplesAndAnnotationsService service;
+
+    @Autowired
+    @Qualifier(QueryExecutorConfiguration.VARIANT_QUERY_EXECUTOR)
+    private Executor variantQueryExecutor;
+
+    @Value("${eva.query.region-fan-out.min-regions:20}")
+    private int minRegions;
+
+    /**
+     * Queries are split only when there are many regions in more than one chromosome.
+     */
+    public boolean isFanOutWorthwhile(List<Region> regions) {
+        return regions.size() >= minRegions && regions.stream().map(Region::getChromosome).distinct().count() > 1;
+    }
+
+    /**
+     * @return the regions grouped by chromosome, in the same order as chromosomes are sorted in the query results
+     */
+    public List<List<Region>> groupByChromosome(List<Region> regions) {
+        Map<String, List<Region>> regionsByChromosome = new TreeMap<>();
+        for (Region region : regions) {
+            regionsByChromosome.computeIfAbsent(region.getChromosome(), chromosome -> new ArrayList<>()).add(region);
+        }
+        return new ArrayList<>(regionsByChromosome.values());
+    }
+
+    public List<Long> countByRegionBatchesAndComplexFilters(List<List<Region>> regionBatches,
+                                                            List<VariantRepositoryFilter> filters) {
+        List<CompletableFuture<Long>> counts = new ArrayList<>();
+        for (List<Region> regionBatch : regionBatches) {
+            counts.add(CompletableFuture.supplyAsync(
+                    () -> service.countByRegionsAndComplexFilters(regionBatch, filters), variantQueryExecutor));
+        }
+
+        List<Long> batchCounts = new ArrayList<>();
+        for (CompletableFuture<Long> count : counts) {
+            batchCounts.add(join(count));
+        }
+        return batchCounts;
+    }
+
+    /**
+     * @param batchCounts number of results of each batch, as returned by countByRegionBatchesAndComplexFilters
+     */
+    public List<VariantWithSamplesAndAnnotation> findByRegionBatchesAndComplexFilters(
+            List<List<Region>> regionBatches, List<Long> batchCounts, List<VariantRepositoryFilter> filters,
+            AnnotationMetadata annotationMetadata, List<String> exclude, int pageNumber, int pageSize)
+            throws AnnotationMetadataNotFoundException {
+        long pageStart = (long) pageNumber * pageSize;
+        long pageEnd = pageStart + pageSize;
+
+        List<CompletableFuture<List<VariantWithSamplesAndAnnotation>>> slices = new ArrayList<>();
+        long batchStart = 0;
+        for (int i = 0; i < regionBatches.size() && batchStart < pageEnd; i++) {
+            long batchEnd = batchStart + batchCounts.get(i);
+            if (batchEnd > pageStart) {
+                long offset = Math.max(pageStart - batchStart, 0);
+                int limit = (int) (Math.min(pageEnd, batchEnd) - batchStart - offset);
+                List<Region> regionBatch = regionBatches.get(i);
+                slices.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return service.findByRegionsAndComplexFilters(regionBatch, filters, annotationMetadata,
+                                                                      exclude, new OffsetPageRequest(offset, limit));
+                    } catch (AnnotationMetadataNotFoundException e) {
+                        throw new CompletionException(e);
+                    }
+                }, variantQueryExecutor));
+            }
+            batchStart = batchEnd;
+        }
+
+        List<VariantWithSamplesAndAnnotation> page = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<VariantWithSamplesAndAnnotation>> slice : slices) {
+                page.addAll(join(slice));
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AnnotationMetadataNotFoundException) {
+                throw (AnnotationMetadataNotFoundException) e.getCause();
+            }
+            throw e;
+        }
+        return page;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Page that starts at any offset, not only at multiples of the page size.
+     */
+    private static class OffsetPageRequest implements Pageable {
+
+        private final long offset;
+
+        private final int size;
+
+        OffsetPageRequest(long offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public int getPageNumber() {
+            return (int) (offset / size);
+        }
+
+        @Override
+        public int getPageSize() {
+            return size;
+        }
+
+        @Override
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public Sort getSort() {
+            return Sort.unsorted();
+        }
+
+        @Override
+        public Pageable next() {
+            return new OffsetPageRequest(offset + size, size);
+        }
+
+        @Override
+        public Pageable previousOrFirst() {
+            return hasPrevious() ? new OffsetPageRequest(Math.max(offset - size, 0), size) : first();
+        }
+
+        @Override
+        public Pageable first() {
+            return new OffsetPageRequest(0, size);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return offset > 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last variant returned in a page, used to continue a query from that point instead of skipping all
+ * the previous pages. The page number is kept only to report it back in the page metadata.
+ *
+ * The encoded form is opaque to clients: URL-safe Base64 of the tab-separated fields.
+ */
+public class VariantPageToken {
+
+    private static final String SEPARATOR = "\t";
+
+    private static final int NUMBER_OF_FIELDS = 4;
+
+    private final int pageNumber;
+
+    private final String chromosome;
+
+    private final long start;
+
+    private final String id;
+
+    public VariantPageToken(int pageNumber, String chromosome, long start, String id) {
+        this.pageNumber = pageNumber;
+        this.chromosome = chromosome;
+        this.start = start;
+        this.id = id;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public String getChromosome() {
+        return chromosome;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String token = pageNumber + SEPARATOR + chromosome + SEPARATOR + start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static VariantPageToken decode(String encodedToken) throws IllegalArgumentException {
+        String token = new String(Base64.getUrlDecoder().decode(encodedToken), StandardCharsets.UTF_8);
+        String[] fields = token.split(SEPARATOR, NUMBER_OF_FIELDS);
+        if (fields.length != NUMBER_OF_FIELDS) {
+            throw new IllegalArgumentException("Invalid page token '" + encodedToken + "'");
+        }
+        try {
+            return new VariantPageToken(Integer.parseInt(fields[0]), fields[1], Long.parseLong(fields[2]), fields[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token '" + encodedToken + "'");
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.services;
+
+import com.mongodb.client.model.CountOptions;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.StreamUtils;
+import org.springframework.stereotype.Service;
+
+import uk.ac.ebi.eva.commons.core.models.Region;
+import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
+import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
+import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
+import uk.ac.ebi.eva.lib.configuration.DbCollectionsProperties;
+import uk.ac.ebi.eva.lib.eva_utils.MongoQueryContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Queries the variants collection directly through the MongoTemplate, for the cases where the paged methods of
+ * VariantWithSamplesAndAnnotationsService are not a good fit (e.g. exporting every variant in a set of regions).
+ *
+ * The database is chosen as in the rest of the web services, by calling
+ * MultiMongoDbFactory.setDatabaseNameForCurrentThread before using this service. Queries are killed in the server
+ * after the time set in MongoQueryContext for the current thread, if any.
+ */
+@Service
+public class VariantQueryService {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String REFERENCE_FIELD = "ref";
+
+    private static final String ALTERNATE_FIELD = "alt";
+
+    private static final String STUDY_ID_FIELD = "sid";
+
+    private static final String FILE_ID_FIELD = "fid";
+
+    private static final String MAF_FIELD = "maf";
+
+    private static final String MAF_ALLELE_FIELD = "mafAl";
+
+    private static final String COUNT_FIELD = "count";
+
+    private static final String TYPE_FIELD = "type";
+
+    private static final String FACET_PREFIX = "query";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DbCollectionsProperties dbCollectionsProperties;
+
+    /**
+     * Runs a single query over all the regions and returns the matching variants, sorted by chromosome and start,
+     * as they are read from the database cursor. The returned stream must be closed to release the cursor.
+     *
+     * @param exclude document fields that don't need to be retrieved from the database
+     */
+    public Stream<Variant> streamByRegionsAndComplexFilters(List<Region> regions,
+                                                            List<VariantRepositoryFilter> filters,
+                                                            List<String> exclude) {
+        Query query = new Query(getRegionsAndFiltersCriteria(regions, filters));
+        query.with(Sort.by(VariantMongo.CHROMOSOME_FIELD, VariantMongo.START_FIELD));
+        excludeFields(query, exclude);
+        query.maxTimeMsec(getMaxTimeMs());
+
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(query, VariantMongo.class, dbCollectionsProperties.getVariants()))
+                          .map(this::toVariant);
+    }
+
+    /**
+     * Returns up to "limit" variants that come after the given token in the chromosome, start and identifier order.
+     * Unlike skipping a number of documents, each page is a range seek in the index, so its cost doesn't depend on
+     * how deep in the results it is.
+     *
+     * @param after position of the last variant of the previous page, or null to get the first page
+     */
+    public List<VariantMongo> findByRegionsAndComplexFiltersAfter(List<Region> regions,
+                                                                  List<VariantRepositoryFilter> filters,
+                                                                  List<String> exclude, VariantPageToken after,
+                                                                  int limit) {
+        Criteria criteria = getRegionsAndFiltersCriteria(regions, filters);
+        if (after != null) {
+            criteria = new Criteria().andOperator(criteria, getAfterCriteria(after));
+        }
+        Query query = new Query(criteria);
+        query.with(Sort.by(VariantMongo.CHROMOSOME_FIELD, VariantMongo.START_FIELD, ID_FIELD));
+        query.limit(limit);
+        excludeFields(query, exclude);
+        query.maxTimeMsec(getMaxTimeMs());
+
+        return mongoTemplate.find(query, VariantMongo.class, dbCollectionsProperties.getVariants());
+    }
+
+    /**
+     * Finds the variants that start at any of the given positions. Each chromosome becomes a single "$in" clause on
+     * the start, so thousands of positions are looked up in one query.
+     *
+     * @param startsByChromosome positions to look up, grouped by chromosome
+     */
+    public List<VariantMongo> findByChromosomesAndStarts(Map<String, ? extends Collection<Long>> startsByChromosome,
+                                                         List<String> exclude) {
+        if (startsByChromosome.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Criteria> chromosomesCriteria = new ArrayList<>();
+        startsByChromosome.forEach((chromosome, starts) -> chromosomesCriteria.add(
+                Criteria.where(VariantMongo.CHROMOSOME_FIELD).is(chromosome).and(VariantMongo.START_FIELD).in(starts)));
+        Query query = new Query(new Criteria().orOperator(chromosomesCriteria.toArray(new Criteria[0])));
+        excludeFields(query, exclude);
+        query.maxTimeMsec(getMaxTimeMs());
+
+        return mongoTemplate.find(query, VariantMongo.class, dbCollectionsProperties.getVariants());
+    }
+
+    /**
+     * Finds the variants with any of the identifiers, with a single "$in" query.
+     */
+    public List<VariantMongo> findByIds(Collection<String> ids, List<String> exclude) {
+        Query query = new Query(Criteria.where(VariantMongo.IDS_FIELD).in(ids));
+        excludeFields(query, exclude);
+        query.maxTimeMsec(getMaxTimeMs());
+
+        return mongoTemplate.find(query, VariantMongo.class, dbCollectionsProperties.getVariants());
+    }
+
+    /**
+     * Whether any variant starts within startRange and ends within endRange. Only the identifier of the first match
+     * is read, which is enough to answer a beacon query that doesn't ask for dataset responses.
+     */
+    public boolean existsByBeaconRegionAndFilters(Region startRange, Region endRange,
+                                                  List<VariantRepositoryFilter> filters) {
+        Document queryObject = new Query(getBeaconRegionAndFiltersCriteria(startRange, endRange, filters))
+                .getQueryObject();
+        return mongoTemplate.execute(dbCollectionsProperties.getVariants(),
+                                     collection -> collection.find(queryObject)
+                                                             .projection(new Document(ID_FIELD, 1))
+                                                             .limit(1)
+                                                             .maxTime(getMaxTimeMs(), TimeUnit.MILLISECONDS)
+                                                             .first() != null);
+    }
+
+    /**
+     * Finds the datasets of the variants that start within startRange and end within endRange. The aggregation only
+     * returns the alleles and the study and file identifiers of the source entries and statistics of each variant,
+     * so samples and annotations are never read into memory.
+     */
+    public BeaconDatasetHits findBeaconDatasetHits(Region startRange, Region endRange,
+                                                   List<VariantRepositoryFilter> filters) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(getBeaconRegionAndFiltersCriteria(startRange, endRange, filters)),
+                context -> new Document("$project", getBeaconDatasetHitsProjection()));
+        return getBeaconDatasetHits(aggregate(aggregation));
+    }
+
+    /**
+     * Finds the datasets of the variants of several beacon queries, with one aggregation per chromosome. Each
+     * aggregation selects the variants that match any of the queries in the chromosome, using the same indexes as a
+     * single query, and then a facet per query picks its own variants among them. Facets return a single document,
+     * which is limited to 16MB, so the queries should be for precise positions rather than wide ranges.
+     *
+     * @return the hits of each query, in the same order as the queries
+     */
+    public List<BeaconDatasetHits> findBeaconDatasetHits(List<BeaconQuery> queries) {
+        Map<String, List<Integer>> queryIndexesByChromosome = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            queryIndexesByChromosome.computeIfAbsent(queries.get(i).getStartRange().getChromosome(),
+                                                     chromosome -> new ArrayList<>()).add(i);
+        }
+
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        BeaconDatasetHits[] hits = new BeaconDatasetHits[queries.size()];
+        for (List<Integer> queryIndexes : queryIndexesByChromosome.values()) {
+            List<Criteria> queriesCriteria = new ArrayList<>();
+            Document facets = new Document();
+            for (int queryIndex : queryIndexes) {
+                BeaconQuery query = queries.get(queryIndex);
+                Criteria criteria = getBeaconRegionAndFiltersCriteria(query.getStartRange(), query.getEndRange(),
+                                                                      query.getFilters());
+                queriesCriteria.add(criteria);
+                Document match = queryMapper.getMappedObject(criteria.getCriteriaObject(), Optional.empty());
+                facets.append(FACET_PREFIX + queryIndex, Arrays.asList(new Document("$match", match)));
+            }
+
+            // The facets filter on the region and any of the beacon filters, so those fields are kept as well
+            Document projection = getBeaconDatasetHitsProjection()
+                    .append(VariantMongo.CHROMOSOME_FIELD, 1)
+                    .append(VariantMongo.START_FIELD, 1)
+                    .append(VariantMongo.END_FIELD, 1)
+                    .append(TYPE_FIELD, 1);
+            Criteria anyQueryCriteria = new Criteria().orOperator(queriesCriteria.toArray(new Criteria[0]));
+            Document anyQuery = queryMapper.getMappedObject(anyQueryCriteria.getCriteriaObject(), Optional.empty());
+            Aggregation aggregation = Aggregation.newAggregation(
+                    context -> new Document("$match", anyQuery),
+                    context -> new Document("$project", projection),
+                    context -> new Document("$facet", facets));
+
+            Document results = aggregate(aggregation).get(0);
+            for (int queryIndex : queryIndexes) {
+                hits[queryIndex] = getBeaconDatasetHits(getSubdocuments(results, FACET_PREFIX + queryIndex));
+            }
+        }
+        return Arrays.asList(hits);
+    }
+
+    /**
+     * Alleles, and study and file identifiers of the source entries and statistics of each variant, so samples and
+     * annotations are never read into memory.
+     */
+    private Document getBeaconDatasetHitsProjection() {
+        return new Document(REFERENCE_FIELD, 1)
+                .append(ALTERNATE_FIELD, 1)
+                .append(VariantMongo.FILES_FIELD + "." + STUDY_ID_FIELD, 1)
+                .append(VariantMongo.FILES_FIELD + "." + FILE_ID_FIELD, 1)
+                .append(VariantMongo.STATS_FIELD + "." + STUDY_ID_FIELD, 1)
+                .append(VariantMongo.STATS_FIELD + "." + FILE_ID_FIELD, 1)
+                .append(VariantMongo.STATS_FIELD + "." + MAF_FIELD, 1)
+                .append(VariantMongo.STATS_FIELD + "." + MAF_ALLELE_FIELD, 1);
+    }
+
+    private BeaconDatasetHits getBeaconDatasetHits(Iterable<Document> variants) {
+        boolean exists = false;
+        Set<String> datasetIds = new HashSet<>();
+        Map<String, Float> frequencies = new HashMap<>();
+        for (Document variant : variants) {
+            exists = true;
+            for (Document sourceEntry : getSubdocuments(variant, VariantMongo.FILES_FIELD)) {
+                datasetIds.add(getDatasetId(sourceEntry));
+            }
+            for (Document statistics : getSubdocuments(variant, VariantMongo.STATS_FIELD)) {
+                String mafAllele = statistics.getString(MAF_ALLELE_FIELD);
+                Number maf = (Number) statistics.get(MAF_FIELD);
+                if (maf != null && (variant.getString(ALTERNATE_FIELD).equalsIgnoreCase(mafAllele) ||
+                        variant.getString(REFERENCE_FIELD).equalsIgnoreCase(mafAllele))) {
+                    frequencies.put(getDatasetId(statistics), maf.floatValue());
+                }
+            }
+        }
+        return new BeaconDatasetHits(exists, datasetIds, frequencies);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Document> getSubdocuments(Document document, String field) {
+        List<Document> subdocuments = (List<Document>) document.get(field);
+        return subdocuments == null ? Collections.emptyList() : subdocuments;
+    }
+
+    private String getDatasetId(Document subdocument) {
+        return subdocument.getString(STUDY_ID_FIELD) + "_" + subdocument.getString(FILE_ID_FIELD);
+    }
+
+    /**
+     * Counts the variants of each study, using the study identifiers of their source entries. A variant with several
+     * files in the same study is counted once per file, so the counts are an upper bound.
+     */
+    public Map<String, Long> countByStudy() {
+        String studyIdField = VariantMongo.FILES_FIELD + "." + STUDY_ID_FIELD;
+        Document group = new Document(ID_FIELD, "$" + studyIdField).append(COUNT_FIELD, new Document("$sum", 1));
+        Aggregation aggregation = Aggregation.newAggregation(
+                context -> new Document("$project", new Document(studyIdField, 1)),
+                context -> new Document("$unwind", "$" + VariantMongo.FILES_FIELD),
+                context -> new Document("$group", group))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+        Map<String, Long> countsByStudy = new HashMap<>();
+        for (Document study : aggregate(aggregation)) {
+            countsByStudy.put(study.getString(ID_FIELD), ((Number) study.get(COUNT_FIELD)).longValue());
+        }
+        return countsByStudy;
+    }
+
+    /**
+     * Reads the position, alternate allele and studies of every variant from a single database cursor. The returned
+     * stream must be closed to release the cursor.
+     */
+    public Stream<BeaconAllele> streamBeaconAlleles() {
+        Query query = new Query();
+        query.fields()
+             .include(VariantMongo.CHROMOSOME_FIELD)
+             .include(VariantMongo.START_FIELD)
+             .include(ALTERNATE_FIELD)
+             .include(VariantMongo.FILES_FIELD + "." + STUDY_ID_FIELD);
+
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(query, Document.class, dbCollectionsProperties.getVariants()))
+                          .map(variant -> {
+                              Set<String> studyIds = new HashSet<>();
+                              for (Document sourceEntry : getSubdocuments(variant, VariantMongo.FILES_FIELD)) {
+                                  studyIds.add(sourceEntry.getString(STUDY_ID_FIELD));
+                              }
+                              return new BeaconAllele(variant.getString(VariantMongo.CHROMOSOME_FIELD),
+                                                      ((Number) variant.get(VariantMongo.START_FIELD)).longValue(),
+                                                      variant.getString(ALTERNATE_FIELD), studyIds);
+                          });
+    }
+
+    /**
+     * Counts the variants in the regions, but stops counting after "limit" of them. This is much cheaper than an exact
+     * count on dense regions when only a lower bound is needed.
+     */
+    public long countByRegionsAndComplexFilters(List<Region> regions, List<VariantRepositoryFilter> filters,
+                                                long limit) {
+        return countWithLimit(getRegionsAndFiltersCriteria(regions, filters), limit);
+    }
+
+    /**
+     * Counts the variants with any of the identifiers, but stops counting after "limit" of them.
+     */
+    public long countByIdsAndComplexFilters(List<String> ids, List<VariantRepositoryFilter> filters, long limit) {
+        return countWithLimit(getIdsAndFiltersCriteria(ids, filters), limit);
+    }
+
+    private long countWithLimit(Criteria criteria, long limit) {
+        Document queryObject = new Query(criteria).getQueryObject();
+        CountOptions countOptions = new CountOptions().limit((int) Math.min(limit, Integer.MAX_VALUE))
+                                                      .maxTime(getMaxTimeMs(), TimeUnit.MILLISECONDS);
+        return mongoTemplate.execute(dbCollectionsProperties.getVariants(),
+                                     collection -> collection.countDocuments(queryObject, countOptions));
+    }
+
+    /**
+     * Runs the aggregation through the driver, as the aggregations of the MongoTemplate can't have a time limit.
+     */
+    private List<Document> aggregate(Aggregation aggregation) {
+        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+        boolean allowDiskUse = aggregation.getOptions().isAllowDiskUse();
+        return mongoTemplate.execute(dbCollectionsProperties.getVariants(),
+                                     collection -> collection.aggregate(pipeline)
+                                                             .allowDiskUse(allowDiskUse)
+                                                             .maxTime(getMaxTimeMs(), TimeUnit.MILLISECONDS)
+                                                             .into(new ArrayList<>()));
+    }
+
+    /**
+     * @return the time limit of the queries of the current thread, or 0 (no limit) if it has none
+     */
+    private long getMaxTimeMs() {
+        Long maxTimeMs = MongoQueryContext.getMaxTimeMsForCurrentThread();
+        return maxTimeMs == null ? 0 : maxTimeMs;
+    }
+
+    private Criteria getAfterCriteria(VariantPageToken after) {
+        return new Criteria().orOperator(
+                Criteria.where(VariantMongo.CHROMOSOME_FIELD).gt(after.getChromosome()),
+                Criteria.where(VariantMongo.CHROMOSOME_FIELD).is(after.getChromosome())
+                        .and(VariantMongo.START_FIELD).gt(after.getStart()),
+                Criteria.where(VariantMongo.CHROMOSOME_FIELD).is(after.getChromosome())
+                        .and(VariantMongo.START_FIELD).is(after.getStart())
+                        .and(ID_FIELD).gt(after.getId()));
+    }
+
+    private Criteria getBeaconRegionAndFiltersCriteria(Region startRange, Region endRange,
+                                                       List<VariantRepositoryFilter> filters) {
+        Criteria criteria = Criteria.where(VariantMongo.CHROMOSOME_FIELD).is(startRange.getChromosome());
+        addRangeBounds(criteria, VariantMongo.START_FIELD, startRange);
+        addRangeBounds(criteria, VariantMongo.END_FIELD, endRange);
+        return getFiltersCriteria(criteria, filters);
+    }
+
+    /**
+     * Restricts the field to the bounds of the range that are set. A beacon query can give a start without an end,
+     * and a null bound would only match the variants without the field.
+     */
+    private void addRangeBounds(Criteria criteria, String field, Region range) {
+        if (range.getStart() == null && range.getEnd() == null) {
+            return;
+        }
+        Criteria fieldCriteria = criteria.and(field);
+        if (range.getStart() != null) {
+            fieldCriteria.gte(range.getStart());
+        }
+        if (range.getEnd() != null) {
+            fieldCriteria.lte(range.getEnd());
+        }
+    }
+
+    private Criteria getIdsAndFiltersCriteria(List<String> ids, List<VariantRepositoryFilter> filters) {
+        return getFiltersCriteria(Criteria.where(VariantMongo.IDS_FIELD).in(ids), filters);
+    }
+
+    private Criteria getRegionsAndFiltersCriteria(List<Region> regions, List<VariantRepositoryFilter> filters) {
+        List<Criteria> regionsCriteria = new ArrayList<>();
+        for (Region region : regions) {
+            regionsCriteria.add(getRegionCriteria(region));
+        }
+        return getFiltersCriteria(new Criteria().orOperator(regionsCriteria.toArray(new Criteria[0])), filters);
+    }
+
+    private Criteria getFiltersCriteria(Criteria criteria, List<VariantRepositoryFilter> filters) {
+        List<Criteria> andCriteria = new ArrayList<>();
+        andCriteria.add(criteria);
+        if (filters != null) {
+            for (VariantRepositoryFilter filter : filters) {
+                andCriteria.add(filter.getCriteria());
+            }
+        }
+        return new Criteria().andOperator(andCriteria.toArray(new Criteria[0]));
+    }
+
+    private Criteria getRegionCriteria(Region region) {
+        Criteria criteria = Criteria.where(VariantMongo.CHROMOSOME_FIELD).is(region.getChromosome());
+        if (region.getEnd() != null) {
+            criteria = criteria.and(VariantMongo.START_FIELD).lte(region.getEnd());
+        }
+        if (region.getStart() != null) {
+            criteria = criteria.and(VariantMongo.END_FIELD).gte(region.getStart());
+        }
+        return criteria;
+    }
+
+    private void excludeFields(Query query, List<String> exclude) {
+        if (exclude == null) {
+            return;
+        }
+        // MongoDB rejects excluding both a field and one of its subfields, e.g. "files" and "files.attrs"
+        for (String field : exclude) {
+            boolean parentExcluded = exclude.stream().anyMatch(other -> field.startsWith(other + "."));
+            if (!parentExcluded) {
+                query.fields().exclude(field);
+            }
+        }
+    }
+
+    public Variant toVariant(VariantMongo variantMongo) {
+        Variant variant = new Variant(variantMongo.getChromosome(), variantMongo.getStart(), variantMongo.getEnd(),
+                                      variantMongo.getReference(), variantMongo.getAlternate());
+        variant.setIds(variantMongo.getIds());
+        variant.setMainId(variantMongo.getMainId());
+        return variant;
+    }
+}
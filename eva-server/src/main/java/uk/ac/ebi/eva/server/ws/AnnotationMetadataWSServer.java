@@ -29,12 +29,15 @@ import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 
 import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/annotation", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = {"annotation"})
 public class AnnotationMetadataWSServer extends EvaWSServer {
 
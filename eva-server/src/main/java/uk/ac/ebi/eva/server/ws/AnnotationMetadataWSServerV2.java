@@ -30,11 +30,14 @@ import uk.ac.ebi.eva.commons.core.models.AnnotationMetadata;
 import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v2/annotation-versions", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = {"annotation"})
 public class AnnotationMetadataWSServerV2 {
 
@@ -52,7 +55,7 @@ public class AnnotationMetadataWSServerV2 {
         if(assembly.isEmpty()) {
             throw new IllegalArgumentException("Please specify an assembly");
         }
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
         return service.findAllByOrderByCacheVersionDescVepVersionDesc();
     }
 
@@ -19,9 +19,16 @@
 
 package uk.ac.ebi.eva.server.ws;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import io.swagger.annotations.Api;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -30,24 +37,31 @@ import org.springframework.web.bind.annotation.RestController;
 import uk.ac.ebi.eva.commons.mongodb.entities.projections.VariantStudySummary;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantStudySummaryService;
 
-import uk.ac.ebi.eva.lib.metadata.eva.ArchiveEvaproDBAdaptor;
 import uk.ac.ebi.eva.lib.metadata.eva.StudyEvaproDBAdaptor;
 import uk.ac.ebi.eva.lib.metadata.shared.ArchiveWSServerHelper;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.services.ArchiveMetadataCache;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping(value = "/v1/meta", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = {"archive"})
 public class ArchiveWSServer extends EvaWSServer {
 
     @Autowired
-    private ArchiveEvaproDBAdaptor archiveEvaproDbAdaptor;
+    private ArchiveMetadataCache archiveMetadataCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Autowired
     private StudyEvaproDBAdaptor studyEvaproDbAdaptor;
@@ -57,34 +71,36 @@ public class ArchiveWSServer extends EvaWSServer {
 
     private ArchiveWSServerHelper archiveWSServerHelper;
 
+    @Value("${eva.archive-cache.max-age-seconds:300}")
+    private long maxAgeSeconds;
 
     public ArchiveWSServer() {
         archiveWSServerHelper = new ArchiveWSServerHelper();
     }
 
     @RequestMapping(value = "/files/count", method = RequestMethod.GET)
-    public QueryResponse countFiles() {
-        return setQueryResponse(archiveEvaproDbAdaptor.countFiles());
+    public ResponseEntity<QueryResponse> countFiles() {
+        return cachedResponse(setQueryResponse(archiveMetadataCache.countFiles()));
     }
 
     @RequestMapping(value = "/species/count", method = RequestMethod.GET)
-    public QueryResponse countSpecies() {
-        return setQueryResponse(archiveEvaproDbAdaptor.countSpecies());
+    public ResponseEntity<QueryResponse> countSpecies() {
+        return cachedResponse(setQueryResponse(archiveMetadataCache.countSpecies()));
     }
 
     @RequestMapping(value = "/species/list", method = RequestMethod.GET)
-    public QueryResponse getBrowsableSpecies() {
-        return setQueryResponse(archiveEvaproDbAdaptor.getBrowsableSpecies());
+    public ResponseEntity<QueryResponse> getBrowsableSpecies() {
+        return cachedResponse(setQueryResponse(archiveMetadataCache.getBrowsableSpecies()));
     }
 
     @RequestMapping(value = "/species/accessioned", method = RequestMethod.GET)
-    public QueryResponse getAccessionedSpecies() {
-        return setQueryResponse(archiveEvaproDbAdaptor.getAccessionedSpecies());
+    public ResponseEntity<QueryResponse> getAccessionedSpecies() {
+        return cachedResponse(setQueryResponse(archiveMetadataCache.getAccessionedSpecies()));
     }
 
     @RequestMapping(value = "/studies/count", method = RequestMethod.GET)
-    public QueryResponse countStudies() {
-        return setQueryResponse(archiveEvaproDbAdaptor.countStudies());
+    public ResponseEntity<QueryResponse> countStudies() {
+        return cachedResponse(setQueryResponse(archiveMetadataCache.countStudies()));
     }
 
     @RequestMapping(value = "/studies/all", method = RequestMethod.GET)
@@ -103,8 +119,36 @@ public class ArchiveWSServer extends EvaWSServer {
     }
 
     @RequestMapping(value = "/studies/stats", method = RequestMethod.GET)
-    public QueryResponse getStudiesStats(@RequestParam(name = "species", required = false) List<String> species,
-                                         @RequestParam(name = "type", required = false) List<String> types) {
-        return archiveWSServerHelper.getStudiesStats(species, types, queryUtils, archiveEvaproDbAdaptor, version);
+    public ResponseEntity<QueryResponse> getStudiesStats(
+            @RequestParam(name = "species", required = false) List<String> species,
+            @RequestParam(name = "type", required = false) List<String> types) {
+        return cachedResponse(archiveWSServerHelper.getStudiesStats(species, types, queryUtils,
+                                                                    archiveMetadataCache, version));
+    }
+
+    /**
+     * Requests with a matching If-None-Match header are answered with 304 and no body.
+     */
+    private ResponseEntity<QueryResponse> cachedResponse(QueryResponse queryResponse) {
+        return ResponseEntity.ok()
+                             .eTag(getETag(queryResponse))
+                             .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                             .body(queryResponse);
+    }
+
+    /**
+     * Hash of the results, without the timings of the queries, so every server gives the same ETag to the same
+     * results, no matter when or where they were cached.
+     */
+    private String getETag(QueryResponse<?> queryResponse) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        try {
+            for (Object queryResult : queryResponse.getResponse()) {
+                hasher.putBytes(objectMapper.writeValueAsBytes(((QueryResult<?>) queryResult).getResult()));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return hasher.hash().toString();
     }
 }
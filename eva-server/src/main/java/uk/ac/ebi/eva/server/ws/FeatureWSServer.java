@@ -26,11 +26,13 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import uk.ac.ebi.eva.commons.core.models.FeatureCoordinates;
-import uk.ac.ebi.eva.commons.mongodb.services.FeatureService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.services.FeatureCoordinatesCache;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -42,11 +44,12 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/features", produces = "application/json")
+@Bulkhead(BulkheadGroup.POINT_LOOKUP)
 @Api(tags = {"features"})
 public class FeatureWSServer extends EvaWSServer {
 
     @Autowired
-    private FeatureService service;
+    private FeatureCoordinatesCache featureCoordinatesCache;
 
     protected static Logger logger = LoggerFactory.getLogger(FeatureWSServer.class);
 
@@ -64,7 +67,7 @@ public class FeatureWSServer extends EvaWSServer {
 
         MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species));
 
-        List<FeatureCoordinates> features = service.findByIdOrName(featureIdOrName, featureIdOrName);
+        List<FeatureCoordinates> features = featureCoordinatesCache.findByIdOrName(featureIdOrName);
 
         QueryResult<FeatureCoordinates> queryResult = buildQueryResult(features);
         return setQueryResponse(queryResult);
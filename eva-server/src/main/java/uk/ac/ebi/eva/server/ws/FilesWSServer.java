@@ -31,6 +31,8 @@ import uk.ac.ebi.eva.lib.metadata.eva.VariantSourceEvaProDBAdaptor;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -40,6 +42,7 @@ import java.util.Arrays;
  */
 @RestController
 @RequestMapping(value = "/v1/files", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = {"files"})
 public class FilesWSServer extends EvaWSServer {
 
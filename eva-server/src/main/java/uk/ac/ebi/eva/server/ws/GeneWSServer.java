@@ -37,6 +37,8 @@ import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundExceptio
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 import uk.ac.ebi.eva.server.Utils;
 
 import javax.servlet.http.HttpServletResponse;
@@ -45,6 +47,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/genes", produces = "application/json")
+@Bulkhead(BulkheadGroup.REGION_SCAN)
 @Api(tags = { "genes" })
 public class GeneWSServer extends EvaWSServer {
 
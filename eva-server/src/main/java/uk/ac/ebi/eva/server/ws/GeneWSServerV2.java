@@ -28,14 +28,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import springfox.documentation.annotations.ApiIgnore;
 import uk.ac.ebi.eva.commons.core.models.FeatureCoordinates;
-import uk.ac.ebi.eva.commons.mongodb.services.FeatureService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.CountMode;
+import uk.ac.ebi.eva.server.services.FeatureCoordinatesCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -47,11 +51,12 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping(value = "/v2/genes", produces = "application/hal+json")
+@Bulkhead(BulkheadGroup.REGION_SCAN)
 @Api(tags = {"genes"})
 public class GeneWSServerV2 {
 
     @Autowired
-    private FeatureService service;
+    private FeatureCoordinatesCache featureCoordinatesCache;
 
     @Autowired
     private RegionWSServerV2 regionWSServerV2;
@@ -101,12 +106,17 @@ public class GeneWSServerV2 {
             @ApiParam(value = "The number of elements that should be retrieved per page.")
             @RequestParam(required = false, defaultValue = "20") Integer pageSize,
             @RequestParam(required = false, defaultValue = "0", name = "buffer") Integer bufferValue,
+            @ApiParam(value = "Token from a 'next' link, to continue from the end of the previous page. Faster than " +
+                    "pageNumber for deep pages. An empty token requests the first page and a 'next' link with a token.")
+            @RequestParam(required = false) String pageToken,
+            @ApiParam(value = CountMode.COUNT_PARAMETER_DESCRIPTION)
+            @RequestParam(name = "count", required = false) String count,
             HttpServletResponse response,
             @ApiIgnore HttpServletRequest request)
             throws IllegalArgumentException {
         checkParameters(geneIds, species, assembly, bufferValue);
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
-        List<FeatureCoordinates> featureCoordinates = service.findAllByGeneIdsOrGeneNames(geneIds, geneIds);
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
+        List<FeatureCoordinates> featureCoordinates = featureCoordinatesCache.findAllByGeneIdsOrGeneNames(geneIds);
 
         if (featureCoordinates.isEmpty()) {
             return new ResponseEntity(featureCoordinates, HttpStatus.NO_CONTENT);
@@ -124,17 +134,19 @@ public class GeneWSServerV2 {
 
         ResponseEntity<PagedResources> responseEntity = regionWSServerV2.getVariantsByRegion(regions, species,
                 assembly, studies, consequenceType, maf, polyphenScore, siftScore, annotationVepVersion,
-                annotationVepCacheVersion, pageNumber, pageSize, response, request);
+                annotationVepCacheVersion, pageNumber, pageSize, pageToken, count, response, request);
 
         if (responseEntity.getStatusCode() != HttpStatus.OK) {
             return responseEntity;
         }
 
+        String nextPageToken = getNextPageToken(responseEntity.getBody());
+        boolean hasLastPageLink = responseEntity.getBody().getLink(Link.REL_LAST) != null;
         responseEntity.getBody().removeLinks();
 
         return new ResponseEntity(buildPage(geneIds, species, assembly, studies, consequenceType, maf, polyphenScore,
-                siftScore, annotationVepVersion, annotationVepCacheVersion, bufferValue, responseEntity.getBody(),
-                response, request), HttpStatus.OK);
+                siftScore, annotationVepVersion, annotationVepCacheVersion, bufferValue, nextPageToken, count,
+                hasLastPageLink, responseEntity.getBody(), response, request), HttpStatus.OK);
     }
 
     private void checkParameters(List<String> geneIds, String species, String assembly, Integer bufferValue)
@@ -165,10 +177,19 @@ public class GeneWSServerV2 {
         return coordinates.getChromosome() + ":" + coordinates.getStart() + "-" + coordinates.getEnd();
     }
 
+    private String getNextPageToken(PagedResources pagedResources) {
+        Link nextLink = pagedResources.getLink(Link.REL_NEXT);
+        if (nextLink == null) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUriString(nextLink.getHref()).build().getQueryParams().getFirst("pageToken");
+    }
+
     private PagedResources buildPage(List<String> geneIds, String species, String assembly, List<String> studies,
                                      List<String> consequenceType, String maf, String polyphenScore, String siftScore,
                                      String annotationVepVersion, String annotationVepCacheVersion,
-                                     Integer bufferValue, PagedResources pagedResources,
+                                     Integer bufferValue, String nextPageToken, String count,
+                                     boolean hasLastPageLink, PagedResources pagedResources,
                                      HttpServletResponse response, HttpServletRequest request) {
 
         int pageNumber = (int) pagedResources.getMetadata().getNumber();
@@ -178,21 +199,24 @@ public class GeneWSServerV2 {
         if (pageNumber > 0) {
             pagedResources.add(createPaginationLink(geneIds, species, assembly, studies, consequenceType,
                     maf, polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
-                    pageNumber - 1, pageSize, bufferValue, response, request, "prev"));
+                    pageNumber - 1, pageSize, bufferValue, null, count, response, request, "prev"));
 
             pagedResources.add(createPaginationLink(geneIds, species, assembly, studies, consequenceType,
                     maf, polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
-                    0, pageSize, bufferValue, response, request, "first"));
+                    0, pageSize, bufferValue, null, count, response, request, "first"));
         }
 
         if (pageNumber < (totalPages - 1)) {
             pagedResources.add(createPaginationLink(geneIds, species, assembly, studies, consequenceType,
                     maf, polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
-                    pageNumber + 1, pageSize, bufferValue, response, request, "next"));
-
-            pagedResources.add(createPaginationLink(geneIds, species, assembly, studies, consequenceType,
-                    maf, polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
-                    totalPages - 1, pageSize, bufferValue, response, request, "last"));
+                    nextPageToken == null ? pageNumber + 1 : null, pageSize, bufferValue, nextPageToken, count,
+                    response, request, "next"));
+
+            if (hasLastPageLink) {
+                pagedResources.add(createPaginationLink(geneIds, species, assembly, studies, consequenceType,
+                        maf, polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
+                        totalPages - 1, pageSize, bufferValue, null, count, response, request, "last"));
+            }
         }
         return pagedResources;
     }
@@ -200,12 +224,12 @@ public class GeneWSServerV2 {
     private Link createPaginationLink(List<String> geneIds, String species, String assembly, List<String> studies,
                                       List<String> consequenceType, String maf, String polyphenScore, String siftScore,
                                       String annotationVepVersion, String annotationVepCacheVersion,
-                                      int pageNumber, int pageSize, Integer bufferValue, HttpServletResponse response,
-                                      HttpServletRequest request,
+                                      Integer pageNumber, int pageSize, Integer bufferValue, String pageToken,
+                                      String count, HttpServletResponse response, HttpServletRequest request,
                                       String linkName) {
         return new Link(linkTo(methodOn(GeneWSServerV2.class).getVariantsByGene(geneIds, species, assembly, studies,
                 consequenceType, maf, polyphenScore, siftScore, annotationVepVersion,
-                annotationVepCacheVersion, pageNumber, pageSize, bufferValue, response, request))
+                annotationVepCacheVersion, pageNumber, pageSize, bufferValue, pageToken, count, response, request))
                 .toUriComponentsBuilder()
                 .toUriString(), linkName);
     }
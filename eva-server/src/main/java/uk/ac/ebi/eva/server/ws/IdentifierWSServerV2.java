@@ -19,6 +19,8 @@
 
 package uk.ac.ebi.eva.server.ws;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,32 +31,56 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
 import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundException;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.Utils;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping(value = "/v2/identifiers", produces = "application/hal+json")
+@Bulkhead(BulkheadGroup.POINT_LOOKUP)
 @Api(tags = "identifier")
 public class IdentifierWSServerV2 {
 
+    private static final int IDENTIFIERS_LIMIT = 100000;
+
+    private static final int IDENTIFIERS_CHUNK_SIZE = 1000;
+
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private VariantQueryService variantQueryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping(value = "/{identifier}/variants")
     public ResponseEntity getVariants(
             @ApiParam(value = "RS or SS identifier of a variant, e.g.: rs55880202", required = true) @PathVariable
@@ -69,7 +95,7 @@ public class IdentifierWSServerV2 {
             throws AnnotationMetadataNotFoundException, IllegalArgumentException {
         checkParameters(species, assembly);
 
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
         List<VariantWithSamplesAndAnnotation> variantEntities = service.findByIdsAndComplexFilters(Arrays.asList
                 (identifier), null, null, null, null);
 
@@ -97,6 +123,64 @@ public class IdentifierWSServerV2 {
         }
     }
 
+    /**
+     * Streams the variants with any of the identifiers as newline-delimited JSON, one variant per line. Identifiers
+     * are looked up in chunks, and the variants of each chunk are written as soon as it has been queried. The last
+     * line lists the identifiers that didn't match any variant, e.g. {"notFound":["rs1","ss2"]}.
+     */
+    @PostMapping(value = "/variants", consumes = "application/json", produces = RegionWSServerV2.NDJSON_MEDIA_TYPE)
+    public void streamVariantsByIdentifiers(
+            @ApiParam(value = "List of RS or SS identifiers of variants, e.g.: [\"rs55880202\", \"ss481155011\"]",
+                    required = true)
+            @RequestBody List<String> identifiers,
+            @ApiParam(value = "First letter of the genus, followed by the full species name, e.g. hsapiens. Allowed" +
+                    " values can be looked up in /v1/meta/species/list/ in the field named 'taxonomyCode'.",
+                    required = true) @RequestParam String species,
+            @ApiParam(value = "Encoded assembly name, e.g. grch37. Allowed values can be looked up in" +
+                    " /v1/meta/species/list/ in the field named 'assemblyCode'.", required = true)
+            @RequestParam String assembly,
+            HttpServletResponse response) throws IOException {
+        try {
+            checkParameters(species, assembly);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (identifiers.size() > IDENTIFIERS_LIMIT) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                               "Please provide at most " + IDENTIFIERS_LIMIT + " identifiers per request");
+            return;
+        }
+
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(RegionWSServerV2.NDJSON_MEDIA_TYPE);
+        ObjectWriter writer = objectMapper.writer();
+        OutputStream outputStream = response.getOutputStream();
+
+        List<String> uniqueIdentifiers = new ArrayList<>(new LinkedHashSet<>(identifiers));
+        Set<String> notFound = new LinkedHashSet<>(uniqueIdentifiers);
+        Set<String> writtenVariants = new HashSet<>();
+        List<String> exclude = new ArrayList<>(Utils.getApiToMongoDocNameMap().values());
+        for (int i = 0; i < uniqueIdentifiers.size(); i += IDENTIFIERS_CHUNK_SIZE) {
+            List<String> chunk = uniqueIdentifiers.subList(i, Math.min(i + IDENTIFIERS_CHUNK_SIZE,
+                                                                       uniqueIdentifiers.size()));
+            for (VariantMongo variantMongo : variantQueryService.findByIds(chunk, exclude)) {
+                notFound.removeAll(variantMongo.getIds());
+                // A variant is found again in a later chunk if it has identifiers in both
+                if (writtenVariants.add(variantMongo.getId())) {
+                    outputStream.write(writer.writeValueAsBytes(variantQueryService.toVariant(variantMongo)));
+                    outputStream.write('\n');
+                }
+            }
+            outputStream.flush();
+        }
+        outputStream.write(writer.writeValueAsBytes(Collections.singletonMap("notFound", notFound)));
+        outputStream.write('\n');
+        outputStream.flush();
+    }
+
     private void checkParameters(String species, String assembly) throws IllegalArgumentException {
         if (species.isEmpty()) {
             throw new IllegalArgumentException("Please specify a species");
@@ -0,0 +1,54 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server.ws;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers with 504 when a query is killed in the database for running longer than its time limit. The driver
+ * exception reaches the controllers either as is or wrapped by the MongoTemplate.
+ */
+@ControllerAdvice
+public class QueryTimeoutErrorHandler {
+
+    private static final String MESSAGE = "The query took too long. Please narrow it down, e.g. to fewer or smaller " +
+            "regions, or use a more specific filter.";
+
+    @ExceptionHandler(MongoExecutionTimeoutException.class)
+    public void handleMongoExecutionTimeoutException(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), MESSAGE);
+    }
+
+    @ExceptionHandler(UncategorizedMongoDbException.class)
+    public void handleUncategorizedMongoDbException(UncategorizedMongoDbException ex, HttpServletResponse response)
+            throws IOException {
+        if (!(ex.getCause() instanceof MongoExecutionTimeoutException)) {
+            throw ex;
+        }
+        handleMongoExecutionTimeoutException(response);
+    }
+
+}
@@ -18,6 +18,7 @@
 
 package uk.ac.ebi.eva.server.ws;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -33,6 +34,7 @@ public class RateLimitErrorHandler {
     @ExceptionHandler(RateLimitException.class)
     public void handleRateLimitExceededException(RateLimitException ex, HttpServletResponse response)
             throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
         response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getLocalizedMessage());
     }
 
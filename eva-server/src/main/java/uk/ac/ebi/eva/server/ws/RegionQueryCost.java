@@ -0,0 +1,130 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws;
+
+import com.google.common.primitives.Ints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import uk.ac.ebi.eva.commons.core.models.Region;
+import uk.ac.ebi.eva.server.RateLimitCost;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cost of a query by regions, which grows with the total length of the regions, the number of regions and the page
+ * size, and is multiplied when annotations are requested. Queries for a few small regions cost 1, the minimum.
+ *
+ * Regions without coordinates count as a whole chromosome of eva.rate-limit.region-cost.chromosome-length bases.
+ * Streams have no page size, and they count as eva.rate-limit.region-cost.stream-results results.
+ */
+@Component
+public class RegionQueryCost implements RateLimitCost {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final double costPerMegabase;
+
+    private final double costPerRegion;
+
+    private final double costPerHundredResults;
+
+    private final double annotationFactor;
+
+    private final long chromosomeLength;
+
+    private final int streamResults;
+
+    public RegionQueryCost(@Value("${eva.rate-limit.region-cost.per-megabase:1}") double costPerMegabase,
+                           @Value("${eva.rate-limit.region-cost.per-region:0.1}") double costPerRegion,
+                           @Value("${eva.rate-limit.region-cost.per-hundred-results:1}") double costPerHundredResults,
+                           @Value("${eva.rate-limit.region-cost.annotation-factor:1.5}") double annotationFactor,
+                           @Value("${eva.rate-limit.region-cost.chromosome-length:250000000}") long chromosomeLength,
+                           @Value("${eva.rate-limit.region-cost.stream-results:1000}") int streamResults) {
+        this.costPerMegabase = costPerMegabase;
+        this.costPerRegion = costPerRegion;
+        this.costPerHundredResults = costPerHundredResults;
+        this.annotationFactor = annotationFactor;
+        this.chromosomeLength = chromosomeLength;
+        this.streamResults = streamResults;
+    }
+
+    @Override
+    public double estimate(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String regionId = pathVariables == null ? null : pathVariables.get("regionId");
+
+        double cost = getResults(request) / 100.0 * costPerHundredResults;
+        if (regionId != null) {
+            List<Region> regions;
+            try {
+                regions = Region.parseRegions(regionId);
+            } catch (RuntimeException e) {
+                // The query will be rejected as invalid without reaching the database
+                return 1;
+            }
+            long length = 0;
+            for (Region region : regions) {
+                length += getLength(region);
+            }
+            cost += length / 1e6 * costPerMegabase + regions.size() * costPerRegion;
+        }
+
+        cost = Math.max(1, cost);
+        if (request.getParameter("annot-vep-version") != null) {
+            cost *= annotationFactor;
+        }
+        return cost;
+    }
+
+    private long getLength(Region region) {
+        if (region.getStart() == null || region.getEnd() == null) {
+            return chromosomeLength;
+        }
+        return Math.max(region.getEnd() - region.getStart() + 1, 1);
+    }
+
+    /**
+     * Page size of the v2 web services, limit of the v1 ones, or the results of a stream.
+     */
+    private int getResults(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Set<MediaType> producibleMediaTypes = (Set<MediaType>) request.getAttribute(
+                HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        if (producibleMediaTypes != null && producibleMediaTypes.contains(
+                MediaType.valueOf(RegionWSServerV2.NDJSON_MEDIA_TYPE))) {
+            return streamResults;
+        }
+
+        String pageSize = request.getParameter("pageSize");
+        if (pageSize == null) {
+            pageSize = request.getParameter("limit");
+        }
+        Integer parsedPageSize = pageSize == null ? null : Ints.tryParse(pageSize);
+        return parsedPageSize == null || parsedPageSize < 0 ? DEFAULT_PAGE_SIZE : parsedPageSize;
+    }
+}
@@ -45,8 +45,12 @@ import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.CountMode;
 import uk.ac.ebi.eva.server.RateLimit;
 import uk.ac.ebi.eva.server.Utils;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -56,12 +60,16 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/segments", produces = "application/json")
+@Bulkhead(BulkheadGroup.REGION_SCAN)
 @Api(tags = { "segments" })
 public class RegionWSServer extends EvaWSServer {
 
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private VariantQueryService variantQueryService;
+
     protected static Logger logger = LoggerFactory.getLogger(FeatureWSServer.class);
 
     private static final int REGION_REQUEST_RATE_LIMIT = 5;
@@ -71,7 +79,7 @@ public class RegionWSServer extends EvaWSServer {
 
     @RequestMapping(value = "/{regionId}/variants", method = RequestMethod.GET)
     @ResponseBody
-    @RateLimit(value=REGION_REQUEST_RATE_LIMIT)
+    @RateLimit(value = REGION_REQUEST_RATE_LIMIT, cost = RegionQueryCost.class)
     public QueryResponse getVariantsByRegion(@PathVariable("regionId") String regionId,
                                              @RequestParam(name = "species") String species,
                                              @RequestParam(name = "studies", required = false) List<String> studies,
@@ -82,10 +90,12 @@ public class RegionWSServer extends EvaWSServer {
                                              @RequestParam(name = "exclude", required = false) List<String> exclude,
                                              @RequestParam(name = "annot-vep-version", required = false) String annotationVepVersion,
                                              @RequestParam(name = "annot-vep-cache-version", required = false) String annotationVepCacheVersion,
+                                             @RequestParam(name = "count", required = false) String count,
                                              HttpServletResponse response,
                                              @ApiIgnore HttpServletRequest request)
             throws IOException {
         initializeQuery();
+        CountMode countMode = CountMode.parse(count);
 
         if (annotationVepVersion == null ^ annotationVepCacheVersion == null) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -134,7 +144,16 @@ public class RegionWSServer extends EvaWSServer {
             return setQueryResponse(ex.getMessage());
         }
 
-        Long numTotalResults = service.countByRegionsAndComplexFilters(regions, filters);
+        Long numTotalResults;
+        if (countMode == CountMode.EXACT) {
+            numTotalResults = service.countByRegionsAndComplexFilters(regions, filters);
+        } else if (countMode == CountMode.ESTIMATE) {
+            numTotalResults = variantQueryService.countByRegionsAndComplexFilters(regions, filters,
+                    CountMode.getEstimateLimit(pageRequest.getOffset(), pageRequest.getPageSize()));
+        } else {
+            numTotalResults = CountMode.getLowerBound(pageRequest.getOffset(), pageRequest.getPageSize(),
+                                                      variantEntities.size());
+        }
 
         QueryResult<VariantWithSamplesAndAnnotation> queryResult = buildQueryResult(variantEntities, numTotalResults);
         return setQueryResponse(queryResult);
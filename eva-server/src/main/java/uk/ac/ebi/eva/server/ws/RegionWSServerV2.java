@@ -19,9 +19,12 @@
 
 package uk.ac.ebi.eva.server.ws;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
@@ -41,41 +44,76 @@ import uk.ac.ebi.eva.commons.core.models.AnnotationMetadata;
 import uk.ac.ebi.eva.commons.core.models.Region;
 import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
 import uk.ac.ebi.eva.commons.mongodb.filter.FilterBuilder;
 import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
 import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundException;
+import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataService;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.CountMode;
 import uk.ac.ebi.eva.server.RateLimit;
 import uk.ac.ebi.eva.server.Utils;
+import uk.ac.ebi.eva.server.configuration.QueryExecutorConfiguration;
+import uk.ac.ebi.eva.server.services.RegionFanOutService;
+import uk.ac.ebi.eva.server.services.VariantPageToken;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping(value = "/v2/regions", produces = "application/hal+json")
+@Bulkhead(BulkheadGroup.REGION_SCAN)
 @Api(tags = {"regions"})
 public class RegionWSServerV2 {
 
     private static final int REGION_REQUEST_RATE_LIMIT = 5;
 
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private VariantQueryService variantQueryService;
+
+    @Autowired
+    private RegionFanOutService regionFanOutService;
+
+    @Autowired
+    private AnnotationMetadataService annotationMetadataService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier(QueryExecutorConfiguration.VARIANT_QUERY_EXECUTOR)
+    private Executor variantQueryExecutor;
+
     public RegionWSServerV2() {
     }
 
     @GetMapping(value = "/{regionId}/variants")
     @ResponseBody
-    @RateLimit(value = REGION_REQUEST_RATE_LIMIT)
+    @RateLimit(value = REGION_REQUEST_RATE_LIMIT, cost = RegionQueryCost.class)
     public ResponseEntity getVariantsByRegion(
             @ApiParam(value = "Comma separated genomic regions in the format chr:start-end.")
             @PathVariable("regionId") String regionId,
@@ -116,12 +154,36 @@ public class RegionWSServerV2 {
             @RequestParam(required = false, defaultValue = "0") Integer pageNumber,
             @ApiParam(value = "The number of elements that should be displayed in a single page.")
             @RequestParam(required = false, defaultValue = "20") Integer pageSize,
+            @ApiParam(value = "Token from a 'next' link, to continue from the end of the previous page. Faster than " +
+                    "pageNumber for deep pages. An empty token requests the first page and a 'next' link with a " +
+                    "token. Pages requested with a token are not counted unless 'count' is given.")
+            @RequestParam(required = false) String pageToken,
+            @ApiParam(value = CountMode.COUNT_PARAMETER_DESCRIPTION)
+            @RequestParam(name = "count", required = false) String count,
             HttpServletResponse response,
             @ApiIgnore HttpServletRequest request)
             throws IllegalArgumentException {
         checkParameters(annotationVepVersion, annotationVepCacheVersion, species);
 
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        CountMode countMode;
+        try {
+            // Counting every result would undo the benefit of the token in deep pages
+            countMode = count == null && pageToken != null ? CountMode.NONE : CountMode.parse(count);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        VariantPageToken after = null;
+        if (pageToken != null) {
+            try {
+                after = pageToken.isEmpty() ? null : VariantPageToken.decode(pageToken);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            pageNumber = after == null ? 0 : after.getPageNumber();
+        }
+
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
 
         List<VariantRepositoryFilter> filters = new FilterBuilder()
                 .getVariantEntityRepositoryFilters(maf, polyphenScore, siftScore, studies, consequenceType);
@@ -132,40 +194,180 @@ public class RegionWSServerV2 {
         AnnotationMetadata annotationMetadata = getAnnotationMetadataHelper(annotationVepVersion,
                 annotationVepCacheVersion);
 
-        Integer totalNumberOfResults = service.countByRegionsAndComplexFilters(regions, filters).intValue();
+        long estimateLimit = CountMode.getEstimateLimit((long) Math.max(pageNumber, 0) * pageSize, pageSize);
+        List<Variant> variants = null;
+        String nextPageToken = null;
+        AnnotationMetadataNotFoundException annotationMetadataNotFound = null;
+        Long totalNumberOfResults;
+        // Many regions spread over several chromosomes are queried as one query per chromosome, in parallel
+        if (pageToken == null && countMode == CountMode.EXACT && regionFanOutService.isFanOutWorthwhile(regions)) {
+            List<List<Region>> regionBatches = regionFanOutService.groupByChromosome(regions);
+            List<Long> batchCounts = regionFanOutService.countByRegionBatchesAndComplexFilters(regionBatches,
+                                                                                               filters);
+            totalNumberOfResults = batchCounts.stream().mapToLong(Long::longValue).sum();
+            if (pageNumber >= 0 && (long) pageNumber * pageSize < totalNumberOfResults) {
+                try {
+                    variants = regionFanOutService.findByRegionBatchesAndComplexFilters(regionBatches, batchCounts,
+                            filters, annotationMetadata, excludeMapped, pageNumber, pageSize)
+                            .stream().map(this::toVariant).collect(Collectors.toList());
+                } catch (AnnotationMetadataNotFoundException ex) {
+                    annotationMetadataNotFound = ex;
+                }
+            }
+        } else {
+            CompletableFuture<Long> totalNumberOfResultsFuture = countTotalResultsAsync(countMode, regions, filters,
+                    estimateLimit);
+
+            // The page is retrieved while the total is being counted, but errors are still reported in the same
+            // order
+            if (pageNumber >= 0) {
+                if (pageToken != null) {
+                    try {
+                        checkAnnotationMetadataExists(annotationMetadata);
+                        // One more variant than the page size is read to know whether there is a next page
+                        List<VariantMongo> variantMongos = variantQueryService.findByRegionsAndComplexFiltersAfter(
+                                regions, filters, excludeMapped, after, pageSize + 1);
+                        if (variantMongos.size() > pageSize) {
+                            variantMongos = variantMongos.subList(0, pageSize);
+                            if (!variantMongos.isEmpty()) {
+                                VariantMongo last = variantMongos.get(pageSize - 1);
+                                nextPageToken = new VariantPageToken(pageNumber + 1, last.getChromosome(),
+                                        last.getStart(), last.getId()).encode();
+                            }
+                        }
+                        variants = variantMongos.stream().map(variantQueryService::toVariant)
+                                                .collect(Collectors.toList());
+                    } catch (AnnotationMetadataNotFoundException ex) {
+                        annotationMetadataNotFound = ex;
+                    }
+                } else {
+                    try {
+                        variants = service.findByRegionsAndComplexFilters(regions,
+                                filters,
+                                annotationMetadata,
+                                excludeMapped,
+                                new PageRequest(pageNumber, pageSize))
+                                .stream().map(this::toVariant).collect(Collectors.toList());
+                    } catch (AnnotationMetadataNotFoundException ex) {
+                        annotationMetadataNotFound = ex;
+                    }
+                }
+            }
+
+            totalNumberOfResults = getTotalNumberOfResults(totalNumberOfResultsFuture);
+        }
 
-        if (totalNumberOfResults == 0) {
-            return new ResponseEntity(new PagedResources<>(Collections.EMPTY_LIST, new PageMetadata(pageSize,
-                    pageNumber < 0 ? 0 : pageNumber, totalNumberOfResults)), HttpStatus.NO_CONTENT);
+        boolean totalIsExact = countMode == CountMode.EXACT ||
+                (countMode == CountMode.ESTIMATE && totalNumberOfResults < estimateLimit);
+
+        if (totalNumberOfResults != null && totalNumberOfResults == 0) {
+            return buildEmptyResponse(pageNumber, pageSize);
         }
 
-        PageMetadata pageMetadata;
+        PageMetadata pageMetadata = null;
         try {
-            pageMetadata = buildPageMetadata(pageSize, pageNumber, totalNumberOfResults);
+            if (totalNumberOfResults != null) {
+                pageMetadata = buildPageMetadata(pageSize, pageNumber, totalNumberOfResults);
+            } else if (pageNumber < 0) {
+                throw new IllegalArgumentException("The page number must not be negative");
+            }
         } catch (IllegalArgumentException e) {
             return new ResponseEntity(e.getMessage(), HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
         }
 
-        List<VariantWithSamplesAndAnnotation> variantEntities;
-        try {
-            variantEntities = service.findByRegionsAndComplexFilters(regions,
-                    filters,
-                    annotationMetadata,
-                    excludeMapped,
-                    new PageRequest(pageNumber, pageSize));
-        } catch (AnnotationMetadataNotFoundException ex) {
-            return new ResponseEntity(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        if (annotationMetadataNotFound != null) {
+            return new ResponseEntity(annotationMetadataNotFound.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        List<Resource> resourcesList = getResources(variantEntities, species, assembly, response);
+        if (pageMetadata == null) {
+            if (variants.isEmpty()) {
+                if (pageNumber == 0) {
+                    return buildEmptyResponse(pageNumber, pageSize);
+                }
+                return new ResponseEntity("There are no results in page " + pageNumber + " for the given page size",
+                        HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            }
+            long offset = (long) pageNumber * pageSize;
+            long lowerBound = pageToken == null ? CountMode.getLowerBound(offset, pageSize, variants.size())
+                    : offset + variants.size() + (nextPageToken == null ? 0 : 1);
+            pageMetadata = buildPageMetadata(pageSize, pageNumber, lowerBound);
+        }
+        List<Resource> resourcesList = getResources(variants, species, assembly, response);
 
-        PagedResources pagedResources = buildPage(resourcesList, pageMetadata, regionId, species, assembly, studies,
-                consequenceType, maf, polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
-                response, request);
+        PagedResources pagedResources = buildPage(resourcesList, pageMetadata, totalIsExact, regionId, species,
+                assembly, studies, consequenceType, maf, polyphenScore, siftScore, annotationVepVersion,
+                annotationVepCacheVersion, nextPageToken, count, response, request);
 
         return new ResponseEntity(pagedResources, HttpStatus.OK);
     }
 
+    /**
+     * Streams every variant in the regions as newline-delimited JSON, one variant per line, in the same order as the
+     * paged endpoint. There is no count query and no pagination: variants are written as they are read from a single
+     * database cursor, so the memory used doesn't depend on the number of results.
+     *
+     * An export holds its slot until the last variant is written, so exports have their own bulkhead, with 4
+     * concurrent exports by default (eva.bulkhead.region-export.max-concurrent), and don't take the slots of the
+     * paged region and gene queries.
+     */
+    @GetMapping(value = "/{regionId}/variants", produces = NDJSON_MEDIA_TYPE)
+    @RateLimit(value = REGION_REQUEST_RATE_LIMIT, cost = RegionQueryCost.class)
+    @Bulkhead(BulkheadGroup.REGION_EXPORT)
+    public void streamVariantsByRegion(
+            @ApiParam(value = "Comma separated genomic regions in the format chr:start-end.")
+            @PathVariable("regionId") String regionId,
+            @ApiParam(value = "First letter of the genus, followed by the full species name, e.g. hsapiens. " +
+                    "Allowed values can be looked up in /v1/meta/species/list/ in the field named 'taxonomyCode'.",
+                    required = true)
+            @RequestParam(name = "species") String species,
+            @ApiParam(value = "Encoded assembly name, e.g. grch37. Allowed values can be looked up in " +
+                    "/v1/meta/species/list/ in the field named 'assemblyCode'.", required = true)
+            @RequestParam(name = "assembly") String assembly,
+            @ApiParam(value = "Identifiers of studies. If this field is null/not specified, all studies should" +
+                    " be queried. Each individual identifier of studies can be looked up in" +
+                    " /v2/studies in the field named `studyId`. e.g. PRJEB6930,PRJEB27824")
+            @RequestParam(name = "studies", required = false) List<String> studies,
+            @ApiParam(value = "Retrieve only variants with exactly this consequence type (as stated by Ensembl VEP)")
+            @RequestParam(name = "annot-ct", required = false) List<String>
+                    consequenceType,
+            @ApiParam(value = "Retrieve only variants whose Minor Allele Frequency is less than (<), less" +
+                    " than or equals (<=), greater than (>), greater than or equals (>=) or equals (=) the" +
+                    " provided number. e.g. <0.1")
+            @RequestParam(name = "maf", required = false) String maf,
+            @ApiParam(value = "Retrieve only variants whose PolyPhen score as stated by Ensembl VEP is less than" +
+                    " (<), less than or equals (<=), greater than (>), greater than or equals (>=) or equals (=) " +
+                    "the provided number. e.g. <0.1")
+            @RequestParam(name = "polyphen", required = false) String polyphenScore,
+            @ApiParam(value = "Retrieve only variants whose SIFT score as stated by Ensembl VEP is less than (<)," +
+                    " less than or equals (<=), greater than (>), greater than or equals (>=) or equals (=) the " +
+                    "provided number. e.g. <0.1")
+            @RequestParam(name = "sift", required = false) String siftScore,
+            HttpServletResponse response,
+            @ApiIgnore HttpServletRequest request)
+            throws IllegalArgumentException, IOException {
+        checkParameters(null, null, species);
+
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
+
+        List<VariantRepositoryFilter> filters = new FilterBuilder()
+                .getVariantEntityRepositoryFilters(maf, polyphenScore, siftScore, studies, consequenceType);
+
+        List<Region> regions = Region.parseRegions(regionId);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON_MEDIA_TYPE);
+        ObjectWriter writer = objectMapper.writer();
+        OutputStream outputStream = response.getOutputStream();
+        try (Stream<Variant> variants = variantQueryService.streamByRegionsAndComplexFilters(regions, filters,
+                                                                                             getExcludedFields())) {
+            for (Variant variant : (Iterable<Variant>) variants::iterator) {
+                outputStream.write(writer.writeValueAsBytes(variant));
+                outputStream.write('\n');
+            }
+        }
+        outputStream.flush();
+    }
+
     public String checkParameters(String annotationVepVersion, String annotationVepCacheVersion, String species) throws
             IllegalArgumentException {
         if (annotationVepVersion == null ^ annotationVepCacheVersion == null) {
@@ -195,7 +397,54 @@ public class RegionWSServerV2 {
         return null;
     }
 
-    private PageMetadata buildPageMetadata(Integer pageSize, Integer pageNumber, Integer totalNumberOfResults)
+    /**
+     * The pages requested with a token don't include annotations, but an unknown annotation version is still an
+     * error, as it is when the page is requested by number.
+     */
+    private void checkAnnotationMetadataExists(AnnotationMetadata annotationMetadata)
+            throws AnnotationMetadataNotFoundException {
+        if (annotationMetadata == null) {
+            return;
+        }
+        for (AnnotationMetadata existing : annotationMetadataService.findAllByOrderByCacheVersionDescVepVersionDesc()) {
+            if (annotationMetadata.getVepVersion().equals(existing.getVepVersion()) &&
+                    annotationMetadata.getCacheVersion().equals(existing.getCacheVersion())) {
+                return;
+            }
+        }
+        throw new AnnotationMetadataNotFoundException(annotationMetadata);
+    }
+
+    private CompletableFuture<Long> countTotalResultsAsync(CountMode countMode, List<Region> regions,
+                                                           List<VariantRepositoryFilter> filters, long estimateLimit) {
+        if (countMode == CountMode.NONE) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (countMode == CountMode.EXACT) {
+                return service.countByRegionsAndComplexFilters(regions, filters);
+            }
+            return variantQueryService.countByRegionsAndComplexFilters(regions, filters, estimateLimit);
+        }, variantQueryExecutor);
+    }
+
+    private Long getTotalNumberOfResults(CompletableFuture<Long> totalNumberOfResultsFuture) {
+        try {
+            return totalNumberOfResultsFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private ResponseEntity buildEmptyResponse(Integer pageNumber, Integer pageSize) {
+        return new ResponseEntity(new PagedResources<>(Collections.EMPTY_LIST, new PageMetadata(pageSize,
+                pageNumber < 0 ? 0 : pageNumber, 0)), HttpStatus.NO_CONTENT);
+    }
+
+    private PageMetadata buildPageMetadata(Integer pageSize, Integer pageNumber, long totalNumberOfResults)
             throws IllegalArgumentException {
         Long totalPages = pageSize == 0L ? 0L : (long) Math.ceil((double) totalNumberOfResults / (double) pageSize);
 
@@ -206,18 +455,21 @@ public class RegionWSServerV2 {
         return new PagedResources.PageMetadata(pageSize, pageNumber, totalNumberOfResults, totalPages);
     }
 
-    private List<Resource> getResources(List<VariantWithSamplesAndAnnotation> variantEntities, String species,
-                                        String assembly, HttpServletResponse response) {
-        List<Resource> resourcesList = new ArrayList<>();
+    private Variant toVariant(VariantWithSamplesAndAnnotation variantEntity) {
+        Variant variant = new Variant(variantEntity.getChromosome(), variantEntity.getStart(),
+                variantEntity.getEnd(), variantEntity.getReference(), variantEntity.getAlternate());
+        variant.setIds(variantEntity.getIds());
+        variant.setMainId(variantEntity.getMainId());
+        return variant;
+    }
 
-        variantEntities.forEach(variantEntity -> {
-            Variant variant = new Variant(variantEntity.getChromosome(), variantEntity.getStart(),
-                    variantEntity.getEnd(), variantEntity.getReference(), variantEntity.getAlternate());
-            variant.setIds(variantEntity.getIds());
-            variant.setMainId(variantEntity.getMainId());
+    List<Resource> getResources(List<Variant> variants, String species, String assembly,
+                                HttpServletResponse response) {
+        List<Resource> resourcesList = new ArrayList<>();
 
-            String variantCoreString = variantEntity.getChromosome() + ":" + variantEntity.getStart() + ":" +
-                    variantEntity.getReference() + ":" + variantEntity.getAlternate();
+        variants.forEach(variant -> {
+            String variantCoreString = variant.getChromosome() + ":" + variant.getStart() + ":" +
+                    variant.getReference() + ":" + variant.getAlternate();
 
             Link annotationsLink = new Link(linkTo(methodOn(VariantWSServerV2.class).getAnnotations(variantCoreString,
                     species, assembly, null, null, response)).toUri().toString(), "annotation");
@@ -229,11 +481,12 @@ public class RegionWSServerV2 {
         return resourcesList;
     }
 
-    private PagedResources buildPage(List<Resource> resourcesList, PageMetadata pageMetadata, String regionId,
-                                     String species, String assembly, List<String> studies,
+    private PagedResources buildPage(List<Resource> resourcesList, PageMetadata pageMetadata, boolean totalIsExact,
+                                     String regionId, String species, String assembly, List<String> studies,
                                      List<String> consequenceType, String maf, String polyphenScore,
                                      String siftScore, String annotationVepVersion, String annotationVepCacheVersion,
-                                     HttpServletResponse response, HttpServletRequest request) {
+                                     String nextPageToken, String count, HttpServletResponse response,
+                                     HttpServletRequest request) {
         PagedResources pagedResources = new PagedResources<>(resourcesList, pageMetadata);
 
         int pageNumber = (int) pageMetadata.getNumber();
@@ -242,21 +495,24 @@ public class RegionWSServerV2 {
         if (pageNumber > 0) {
             pagedResources.add(createPaginationLink(regionId, species, assembly, studies, consequenceType, maf,
                     polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion, pageNumber - 1,
-                    pageSize, response, request, "prev"));
+                    pageSize, null, count, response, request, "prev"));
 
             pagedResources.add(createPaginationLink(regionId, species, assembly, studies, consequenceType, maf,
                     polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion, 0, pageSize,
-                    response, request, "first"));
+                    null, count, response, request, "first"));
         }
 
         if (pageNumber < (pageMetadata.getTotalPages() - 1)) {
-            pagedResources.add(createPaginationLink(regionId, species, assembly, studies, consequenceType, maf,
-                    polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion, pageNumber + 1,
-                    pageSize, response, request, "next"));
-
             pagedResources.add(createPaginationLink(regionId, species, assembly, studies, consequenceType, maf,
                     polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
-                    (int) pageMetadata.getTotalPages() - 1, pageSize, response, request, "last"));
+                    nextPageToken == null ? pageNumber + 1 : null, pageSize, nextPageToken, count, response,
+                    request, "next"));
+
+            if (totalIsExact) {
+                pagedResources.add(createPaginationLink(regionId, species, assembly, studies, consequenceType, maf,
+                        polyphenScore, siftScore, annotationVepVersion, annotationVepCacheVersion,
+                        (int) pageMetadata.getTotalPages() - 1, pageSize, null, count, response, request, "last"));
+            }
         }
         return pagedResources;
     }
@@ -264,11 +520,11 @@ public class RegionWSServerV2 {
     private Link createPaginationLink(String regionId, String species, String assembly, List<String> studies,
                                       List<String> consequenceType, String maf, String polyphenScore,
                                       String siftScore, String annotationVepVersion, String annotationVepCacheVersion,
-                                      int pageNumber, int pageSize, HttpServletResponse response,
-                                      HttpServletRequest request, String linkName) {
+                                      Integer pageNumber, int pageSize, String pageToken, String count,
+                                      HttpServletResponse response, HttpServletRequest request, String linkName) {
         return new Link(linkTo(methodOn(RegionWSServerV2.class).getVariantsByRegion(regionId, species, assembly,
                 studies, consequenceType, maf, polyphenScore, siftScore, annotationVepVersion,
-                annotationVepCacheVersion, pageNumber, pageSize, response, request))
+                annotationVepCacheVersion, pageNumber, pageSize, pageToken, count, response, request))
                 .toUriComponentsBuilder()
                 .toUriString(), linkName);
     }
@@ -0,0 +1,45 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws;
+
+import org.springframework.hateoas.PagedResources;
+
+import uk.ac.ebi.eva.lib.models.VariantStudy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of studies found by /v2/studies/search, with the number of studies of every facet value.
+ */
+public class StudySearchResources extends PagedResources<VariantStudy> {
+
+    private final Map<String, Map<String, Long>> facets;
+
+    public StudySearchResources(List<VariantStudy> studies, PageMetadata pageMetadata,
+                                Map<String, Map<String, Long>> facets) {
+        super(studies, pageMetadata);
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+}
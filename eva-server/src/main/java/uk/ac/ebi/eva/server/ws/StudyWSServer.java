@@ -36,6 +36,8 @@ import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -44,6 +46,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/studies", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = {"studies"})
 public class StudyWSServer extends EvaWSServer {
 
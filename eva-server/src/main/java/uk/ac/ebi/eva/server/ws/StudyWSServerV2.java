@@ -15,21 +15,33 @@ import uk.ac.ebi.eva.commons.mongodb.entities.projections.VariantStudySummary;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantStudySummaryService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.lib.metadata.eva.StudyEvaproDBAdaptor;
+import uk.ac.ebi.eva.lib.metadata.shared.StudySearchIndex;
+import uk.ac.ebi.eva.lib.metadata.shared.StudySearchResult;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.CountMode;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping(value = "/v2/studies", produces = "application/hal+json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = "studies")
 public class StudyWSServerV2 {
 
     @Autowired
     private VariantStudySummaryService variantStudySummaryService;
 
+    @Autowired
+    private StudyEvaproDBAdaptor studyEvaproDBAdaptor;
+
     @RequestMapping(value = "", method = RequestMethod.GET)
     public ResponseEntity getBrowsableStudies(
             @ApiParam(value = "First letter of the genus, followed by the full species name, e.g. hsapiens. " +
@@ -43,13 +55,27 @@ public class StudyWSServerV2 {
                     " e.g. 0")
             @RequestParam(required = false, defaultValue = "0") Integer pageNumber,
             @ApiParam(value = "The number of elements that should be displayed in a single page. e.g. 5")
-            @RequestParam(required = false, defaultValue = "20") Integer pageSize)
+            @RequestParam(required = false, defaultValue = "20") Integer pageSize,
+            @ApiParam(value = CountMode.COUNT_PARAMETER_DESCRIPTION + " Studies can't be counted partially, so " +
+                    "'estimate' behaves as 'none'.")
+            @RequestParam(name = "count", required = false) String count)
             throws IllegalArgumentException {
         if (species == null || species.isEmpty()) {
             throw new IllegalArgumentException("Please specify a species");
         }
 
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        CountMode countMode;
+        try {
+            countMode = CountMode.parse(count);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
+
+        if (countMode != CountMode.EXACT) {
+            return getBrowsableStudiesWithoutCount(species, assembly, pageNumber, pageSize, count);
+        }
 
         int totalNumberOfResults = variantStudySummaryService.countAll();
         if (totalNumberOfResults == 0) {
@@ -66,12 +92,106 @@ public class StudyWSServerV2 {
             return new ResponseEntity(e.getMessage(), HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
         }
 
-        PagedResources pagedResources = buildPagedResources(uniqueStudies, species, assembly, pageMetadata);
+        PagedResources pagedResources = buildPagedResources(uniqueStudies, species, assembly, pageMetadata, true,
+                count);
+        return new ResponseEntity(pagedResources, HttpStatus.OK);
+    }
+
+    /**
+     * Searches the study metadata in memory, so the whole catalogue doesn't need to be downloaded to filter it. Every
+     * response has the counts of all the facets, for the studies that match the text and the filters of the other
+     * facets.
+     */
+    @RequestMapping(value = "/search", method = RequestMethod.GET)
+    public ResponseEntity searchStudies(
+            @ApiParam(value = "Words to search in the title, description and accession of the studies. Every word " +
+                    "must be found, and can be the beginning of a longer word, e.g. 'exom seq'")
+            @RequestParam(name = "text", required = false) String text,
+            @ApiParam(value = "Comma-separated list of common or scientific names of species, e.g. Human,Bos taurus")
+            @RequestParam(name = "species", required = false) List<String> species,
+            @ApiParam(value = "Comma-separated list of assembly names or accessions, e.g. GRCh38.p7")
+            @RequestParam(name = "assembly", required = false) List<String> assembly,
+            @ApiParam(value = "Comma-separated list of sequencing platforms, e.g. Illumina")
+            @RequestParam(name = "platform", required = false) List<String> platform,
+            @ApiParam(value = "Comma-separated list of experiment types, e.g. Exome sequencing")
+            @RequestParam(name = "type", required = false) List<String> type,
+            @ApiParam(value = "Comma-separated list of study scopes, e.g. multi-isolate")
+            @RequestParam(name = "scope", required = false) List<String> scope,
+            @ApiParam(value = "The number of the page that should be displayed. Starts from 0 and is an integer." +
+                    " e.g. 0")
+            @RequestParam(required = false, defaultValue = "0") Integer pageNumber,
+            @ApiParam(value = "The number of elements that should be displayed in a single page. e.g. 5")
+            @RequestParam(required = false, defaultValue = "20") Integer pageSize) {
+        Map<StudySearchIndex.Facet, List<String>> filters = new EnumMap<>(StudySearchIndex.Facet.class);
+        filters.put(StudySearchIndex.Facet.SPECIES, species);
+        filters.put(StudySearchIndex.Facet.ASSEMBLY, assembly);
+        filters.put(StudySearchIndex.Facet.PLATFORM, platform);
+        filters.put(StudySearchIndex.Facet.TYPE, type);
+        filters.put(StudySearchIndex.Facet.SCOPE, scope);
+
+        StudySearchResult result;
+        try {
+            result = studyEvaproDBAdaptor.searchStudies(text, filters, pageNumber, pageSize);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        long totalPages = (long) Math.ceil((double) result.getTotalResults() / (double) pageSize);
+        StudySearchResources resources = new StudySearchResources(
+                result.getStudies(),
+                new PagedResources.PageMetadata(pageSize, pageNumber, result.getTotalResults(), totalPages),
+                result.getFacets());
+
+        if (pageNumber > 0) {
+            resources.add(createSearchLink(text, species, assembly, platform, type, scope, pageNumber - 1, pageSize,
+                                           "prev"));
+            resources.add(createSearchLink(text, species, assembly, platform, type, scope, 0, pageSize, "first"));
+        }
+        if (pageNumber < totalPages - 1) {
+            resources.add(createSearchLink(text, species, assembly, platform, type, scope, pageNumber + 1, pageSize,
+                                           "next"));
+            resources.add(createSearchLink(text, species, assembly, platform, type, scope, (int) totalPages - 1,
+                                           pageSize, "last"));
+        }
+        return new ResponseEntity(resources, HttpStatus.OK);
+    }
+
+    private Link createSearchLink(String text, List<String> species, List<String> assembly, List<String> platform,
+                                  List<String> type, List<String> scope, int pageNumber, int pageSize,
+                                  String linkName) {
+        return new Link(linkTo(methodOn(StudyWSServerV2.class).searchStudies(text, species, assembly, platform,
+                                                                             type, scope, pageNumber, pageSize))
+                                .toUriComponentsBuilder()
+                                .toUriString(), linkName);
+    }
+
+    private ResponseEntity getBrowsableStudiesWithoutCount(String species, String assembly, Integer pageNumber,
+                                                           Integer pageSize, String count) {
+        if (pageNumber < 0) {
+            return new ResponseEntity("The page number must not be negative",
+                    HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+
+        List<VariantStudySummary> uniqueStudies = variantStudySummaryService.findAll(pageNumber, pageSize);
+        if (uniqueStudies.isEmpty()) {
+            if (pageNumber == 0) {
+                return new ResponseEntity(new PagedResources<>(Collections.EMPTY_LIST,
+                        new PagedResources.PageMetadata(pageSize, pageNumber, 0)), HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity("There are no results in page " + pageNumber + " for the given page size",
+                    HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+
+        long lowerBound = CountMode.getLowerBound((long) pageNumber * pageSize, pageSize, uniqueStudies.size());
+        PagedResources.PageMetadata pageMetadata = buildPageMetadata(pageSize, pageNumber, lowerBound);
+
+        PagedResources pagedResources = buildPagedResources(uniqueStudies, species, assembly, pageMetadata, false,
+                count);
         return new ResponseEntity(pagedResources, HttpStatus.OK);
     }
 
-    private PagedResources.PageMetadata buildPageMetadata(Integer pageSize, Integer pageNumber, Integer
-            totalNumberOfResults)
+    private PagedResources.PageMetadata buildPageMetadata(Integer pageSize, Integer pageNumber,
+                                                          long totalNumberOfResults)
             throws IllegalArgumentException {
         Long totalPages = pageSize == 0L ? 0L : (long) Math.ceil((double) totalNumberOfResults / (double) pageSize);
 
@@ -83,7 +203,8 @@ public class StudyWSServerV2 {
     }
 
     private PagedResources buildPagedResources(List<VariantStudySummary> uniqueStudies, String species,
-                                               String assembly, PagedResources.PageMetadata pageMetadata) {
+                                               String assembly, PagedResources.PageMetadata pageMetadata,
+                                               boolean totalIsExact, String count) {
 
         PagedResources pagedResources = new PagedResources<>(uniqueStudies, pageMetadata);
 
@@ -91,23 +212,26 @@ public class StudyWSServerV2 {
         int pageSize = (int) pageMetadata.getSize();
 
         if (pageNumber > 0) {
-            pagedResources.add(createPaginationLink(species, assembly, pageNumber - 1, pageSize, "prev"));
+            pagedResources.add(createPaginationLink(species, assembly, pageNumber - 1, pageSize, count, "prev"));
 
-            pagedResources.add(createPaginationLink(species, assembly, 0, pageSize, "first"));
+            pagedResources.add(createPaginationLink(species, assembly, 0, pageSize, count, "first"));
         }
 
         if (pageNumber < (pageMetadata.getTotalPages() - 1)) {
-            pagedResources.add(createPaginationLink(species, assembly, pageNumber + 1, pageSize, "next"));
+            pagedResources.add(createPaginationLink(species, assembly, pageNumber + 1, pageSize, count, "next"));
 
-            pagedResources.add(createPaginationLink(species, assembly, (int) pageMetadata.getTotalPages() - 1,
-                    pageSize, "last"));
+            if (totalIsExact) {
+                pagedResources.add(createPaginationLink(species, assembly, (int) pageMetadata.getTotalPages() - 1,
+                        pageSize, count, "last"));
+            }
         }
         return pagedResources;
     }
 
-    private Link createPaginationLink(String species, String assembly, int pageNumber, int pageSize, String linkName) {
+    private Link createPaginationLink(String species, String assembly, int pageNumber, int pageSize, String count,
+                                      String linkName) {
         return new Link(linkTo(methodOn(StudyWSServerV2.class).getBrowsableStudies(species, assembly,
-                pageNumber, pageSize))
+                pageNumber, pageSize, count))
                 .toUriComponentsBuilder()
                 .toUriString(), linkName);
     }
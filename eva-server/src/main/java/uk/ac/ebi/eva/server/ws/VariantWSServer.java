@@ -25,6 +25,7 @@ import uk.ac.ebi.eva.lib.utils.QueryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -39,7 +40,11 @@ import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundExceptio
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.CountMode;
 import uk.ac.ebi.eva.server.Utils;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -50,12 +55,16 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/variants", produces = "application/json")
+@Bulkhead(BulkheadGroup.POINT_LOOKUP)
 @Api(tags = {"variants"})
 public class VariantWSServer extends EvaWSServer {
 
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private VariantQueryService variantQueryService;
+
     protected static Logger logger = LoggerFactory.getLogger(FeatureWSServer.class);
 
     @RequestMapping(value = "/{variantId}/info", method = RequestMethod.GET)
@@ -142,6 +151,7 @@ public class VariantWSServer extends EvaWSServer {
                                         @RequestParam(name = "exclude", required = false) List<String> exclude,
                                         @RequestParam(name = "annot-vep-version", required = false) String annotationVepVersion,
                                         @RequestParam(name = "annot-vep-cache-version", required = false) String annotationVepCacheVersion,
+                                        @RequestParam(name = "count", required = false) String count,
                                         HttpServletResponse response)
             throws IOException {
         initializeQuery();
@@ -156,6 +166,14 @@ public class VariantWSServer extends EvaWSServer {
             return setQueryResponse("Please specify a species");
         }
 
+        CountMode countMode;
+        try {
+            countMode = CountMode.parse(count);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return setQueryResponse(e.getMessage());
+        }
+
         // Split the variants ids by ','
         List<String> variantIdsAsList = Arrays.asList(variantIds.split(","));
 
@@ -186,10 +204,19 @@ public class VariantWSServer extends EvaWSServer {
                 annotationMetadata = new AnnotationMetadata(annotationVepVersion, annotationVepCacheVersion);
             }
 
+            PageRequest pageRequest = Utils.getPageRequest(getQueryOptions());
             variantEntities = service.findByIdsAndComplexFilters(variantIdsAsList, filters, annotationMetadata, excludeMapped,
-                    Utils.getPageRequest(getQueryOptions()));
+                    pageRequest);
 
-            numTotalResults = service.countByIdsAndComplexFilters(variantIdsAsList, filters);
+            if (countMode == CountMode.EXACT) {
+                numTotalResults = service.countByIdsAndComplexFilters(variantIdsAsList, filters);
+            } else if (countMode == CountMode.ESTIMATE) {
+                numTotalResults = variantQueryService.countByIdsAndComplexFilters(variantIdsAsList, filters,
+                        CountMode.getEstimateLimit(pageRequest.getOffset(), pageRequest.getPageSize()));
+            } else {
+                numTotalResults = CountMode.getLowerBound(pageRequest.getOffset(), pageRequest.getPageSize(),
+                                                          variantEntities.size());
+            }
 
         } catch (AnnotationMetadataNotFoundException ex) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
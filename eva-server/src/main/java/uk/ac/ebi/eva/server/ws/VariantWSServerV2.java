@@ -27,6 +27,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -35,27 +37,46 @@ import org.springframework.hateoas.Resource;
 import uk.ac.ebi.eva.commons.core.models.AnnotationMetadata;
 import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
 import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundException;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.lib.models.VariantLookupResult;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.Utils;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping(value = "/v2/variants", produces = "application/hal+json")
+@Bulkhead(BulkheadGroup.POINT_LOOKUP)
 @Api(tags = {"variants"})
 public class VariantWSServerV2 {
 
+    private static final int BATCH_SIZE_LIMIT = 10000;
+
+    private static final String MORE_THAN_ONE_VARIANT_MESSAGE = "More than one variant has been found.";
+
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private VariantQueryService variantQueryService;
+
     @GetMapping(value = "/{variantCoreString}")
     public ResponseEntity getCoreInfo(
             @ApiParam(value = "Chromosome, start, reference allele and" +
@@ -75,7 +96,7 @@ public class VariantWSServerV2 {
             return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
 
         Optional<VariantWithSamplesAndAnnotation> variantEntity;
 
@@ -106,6 +127,71 @@ public class VariantWSServerV2 {
         return new ResponseEntity(new Resource<>(variant, links), HttpStatus.OK);
     }
 
+    @PostMapping(value = "/batch", consumes = "application/json")
+    public ResponseEntity getCoreInfoBatch(
+            @ApiParam(value = "List of variants, each one as chromosome, start, reference allele and alternate " +
+                    "allele; all joined by colon. e.g. [\"13:32884647:T:C\", \"13:32889669:C:T\"]",
+                    required = true)
+            @RequestBody List<String> variantCoreStrings,
+            @ApiParam(value = "First letter of the genus, followed by the full species name, e.g. hsapiens. " +
+                    "Allowed values can be looked up in /v1/meta/species/list/ in the field named 'taxonomyCode'.",
+                    required = true)
+            @RequestParam(name = "species") String species,
+            @ApiParam(value = "Encoded assembly name, e.g. grch37. Allowed values can be looked up in " +
+                    "/v1/meta/species/list/ in the field named 'assemblyCode'.", required = true)
+            @RequestParam(name = "assembly") String assembly) {
+        if (variantCoreStrings.size() > BATCH_SIZE_LIMIT) {
+            return new ResponseEntity("Please provide at most " + BATCH_SIZE_LIMIT + " variants per request",
+                    HttpStatus.BAD_REQUEST);
+        }
+        try {
+            for (String variantCoreString : variantCoreStrings) {
+                checkParameters(variantCoreString, null, null, species, assembly);
+            }
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
+
+        Map<String, Set<Long>> startsByChromosome = new HashMap<>();
+        for (String variantCoreString : variantCoreStrings) {
+            String[] regionId = variantCoreString.split(":", -1);
+            startsByChromosome.computeIfAbsent(regionId[0], chromosome -> new HashSet<>())
+                              .add(Long.parseLong(regionId[1]));
+        }
+
+        Map<String, List<Variant>> variantsByCoreString = new HashMap<>();
+        List<String> exclude = new ArrayList<>(Utils.getApiToMongoDocNameMap().values());
+        for (VariantMongo variantMongo : variantQueryService.findByChromosomesAndStarts(startsByChromosome, exclude)) {
+            variantsByCoreString.computeIfAbsent(getVariantCoreString(variantMongo.getChromosome(),
+                                                                      variantMongo.getStart(),
+                                                                      variantMongo.getReference(),
+                                                                      variantMongo.getAlternate()),
+                                                 variantCoreString -> new ArrayList<>())
+                                .add(variantQueryService.toVariant(variantMongo));
+        }
+
+        // Like in the lookup of a single variant, a core string that matches several variants is an error
+        List<VariantLookupResult> results = new ArrayList<>();
+        for (String variantCoreString : variantCoreStrings) {
+            String[] regionId = variantCoreString.split(":", -1);
+            List<Variant> variants = variantsByCoreString.getOrDefault(
+                    getVariantCoreString(regionId[0], Long.parseLong(regionId[1]), regionId[2], regionId[3]),
+                    Collections.emptyList());
+            if (variants.size() > 1) {
+                results.add(new VariantLookupResult(variantCoreString, null, MORE_THAN_ONE_VARIANT_MESSAGE));
+            } else {
+                results.add(new VariantLookupResult(variantCoreString, variants.isEmpty() ? null : variants.get(0)));
+            }
+        }
+        return new ResponseEntity(new Resources<>(results), HttpStatus.OK);
+    }
+
+    private String getVariantCoreString(String chromosome, long start, String reference, String alternate) {
+        return chromosome + ":" + start + ":" + reference + ":" + alternate;
+    }
+
     private void checkParameters(String variantCoreString, String annotationVepVersion,
                                  String annotationVepCacheVersion, String species, String assembly) {
         String[] regionId = variantCoreString.split(":", -1);
@@ -155,7 +241,7 @@ public class VariantWSServerV2 {
         if (variantWithSamplesAndAnnotationList.size() == 1) {
             return Optional.of(variantWithSamplesAndAnnotationList.get(0));
         } else if (variantWithSamplesAndAnnotationList.size() > 1) {
-            throw new IllegalArgumentException("More than one variant has been found.");
+            throw new IllegalArgumentException(MORE_THAN_ONE_VARIANT_MESSAGE);
         }
         return Optional.ofNullable(null);
     }
@@ -186,7 +272,7 @@ public class VariantWSServerV2 {
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
 
         Optional<VariantWithSamplesAndAnnotation> variantEntity;
         try {
@@ -231,7 +317,7 @@ public class VariantWSServerV2 {
         } catch (IllegalArgumentException e) {
             return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" + assembly));
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species, assembly));
 
         Optional<VariantWithSamplesAndAnnotation> variantEntity;
         try {
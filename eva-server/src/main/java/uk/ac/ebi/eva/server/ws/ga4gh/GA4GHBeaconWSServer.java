@@ -33,7 +33,10 @@ import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataNotFoundExceptio
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 import uk.ac.ebi.eva.server.ws.EvaWSServer;
+import uk.ac.ebi.eva.server.ws.ga4gh.beaconv2.BeaconBloomFilter;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -41,12 +44,16 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/ga4gh", produces = "application/json")
+@Bulkhead(BulkheadGroup.BEACON)
 @Api(tags = { "ga4gh" })
 public class GA4GHBeaconWSServer extends EvaWSServer {
 
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private BeaconBloomFilter beaconBloomFilter;
+
     protected static Logger logger = LoggerFactory.getLogger(GA4GHBeaconWSServer.class);
 
     public GA4GHBeaconWSServer() { }
@@ -66,7 +73,13 @@ public class GA4GHBeaconWSServer extends EvaWSServer {
                                            "Please provide a positive number as start position");
         }
 
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName("hsapiens_grch37"));
+        String databaseName = DBAdaptorConnector.getDBName("hsapiens_grch37");
+        if (!allele.equalsIgnoreCase("INDEL") &&
+                !beaconBloomFilter.mightContain(databaseName, chromosome, start, allele, studies)) {
+            return new GA4GHBeaconResponse(chromosome, start, allele, String.join(",", studies), false);
+        }
+
+        MultiMongoDbFactory.setDatabaseNameForCurrentThread(databaseName);
 
         List<VariantWithSamplesAndAnnotation> variantEntities;
         if (allele.equalsIgnoreCase("INDEL")) {
@@ -37,6 +37,8 @@ import uk.ac.ebi.eva.lib.models.ga4gh.GASearchCallSetsRequest;
 import uk.ac.ebi.eva.lib.models.ga4gh.GASearchCallSetsResponse;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 import uk.ac.ebi.eva.server.Utils;
 import uk.ac.ebi.eva.server.ws.EvaWSServer;
 
@@ -49,6 +51,7 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(value = "/v1/ga4gh/callsets", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = { "ga4gh", "samples" })
 public class GA4GHVariantCallSetWSServer extends EvaWSServer {
 
@@ -37,6 +37,8 @@ import uk.ac.ebi.eva.lib.models.ga4gh.GAVariantSet;
 import uk.ac.ebi.eva.lib.models.ga4gh.GAVariantSetFactory;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 import uk.ac.ebi.eva.server.Utils;
 import uk.ac.ebi.eva.server.ws.EvaWSServer;
 
@@ -46,6 +48,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/ga4gh/variantsets", produces = "application/json")
+@Bulkhead(BulkheadGroup.METADATA)
 @Api(tags = { "ga4gh", "files" })
 public class GA4GHVariantSetWSServer extends EvaWSServer {
 
@@ -41,7 +41,11 @@ import uk.ac.ebi.eva.lib.models.ga4gh.GAVariant;
 import uk.ac.ebi.eva.lib.models.ga4gh.GAVariantFactory;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
+import uk.ac.ebi.eva.server.CountMode;
 import uk.ac.ebi.eva.server.Utils;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 import uk.ac.ebi.eva.server.ws.EvaWSServer;
 
 import javax.servlet.http.HttpServletResponse;
@@ -53,12 +57,16 @@ import java.util.List;
 
 @RestController
 @RequestMapping(value = "/v1/ga4gh/variants", produces = "application/json")
+@Bulkhead(BulkheadGroup.REGION_SCAN)
 @Api(tags = {"ga4gh", "variants"})
 public class GA4GHVariantWSServer extends EvaWSServer {
 
     @Autowired
     private VariantWithSamplesAndAnnotationsService service;
 
+    @Autowired
+    private VariantQueryService variantQueryService;
+
     protected static Logger logger = LoggerFactory.getLogger(GA4GHVariantWSServer.class);
 
     public GA4GHVariantWSServer() {
@@ -77,9 +85,19 @@ public class GA4GHVariantWSServer extends EvaWSServer {
                                                         @RequestParam(name = "variantSetIds", required = false) List<String> files,
 //                                        @RequestParam(name = "callSetIds", required = false) String samples,
                                                         @RequestParam(name = "pageToken", required = false) String pageToken,
-                                                        @RequestParam(name = "pageSize", defaultValue = "10") int limit)
+                                                        @RequestParam(name = "pageSize", defaultValue = "10") int limit,
+                                                        @RequestParam(name = "count", required = false) String count,
+                                                        HttpServletResponse response)
             throws UnknownHostException, IOException, AnnotationMetadataNotFoundException {
         initializeQuery();
+        // Caught here, as handleException answers the IllegalArgumentExceptions as requests that are too large
+        CountMode countMode;
+        try {
+            countMode = CountMode.parse(count);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return null;
+        }
 
         MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName("hsapiens_grch37"));
 
@@ -99,7 +117,16 @@ public class GA4GHVariantWSServer extends EvaWSServer {
                                                                                                        pageRequest);
         List<VariantWithSamplesAndAnnotation> variants = Collections.unmodifiableList(variantEntities);
 
-        Long numTotalResults = service.countByRegionsAndComplexFilters(regions, filters);
+        long numTotalResults;
+        if (countMode == CountMode.EXACT) {
+            numTotalResults = service.countByRegionsAndComplexFilters(regions, filters);
+        } else if (countMode == CountMode.ESTIMATE) {
+            numTotalResults = variantQueryService.countByRegionsAndComplexFilters(regions, filters,
+                    CountMode.getEstimateLimit(pageRequest.getOffset(), pageRequest.getPageSize()));
+        } else {
+            numTotalResults = CountMode.getLowerBound(pageRequest.getOffset(), pageRequest.getPageSize(),
+                                                      variants.size());
+        }
 
         // Convert Variant objects to GAVariant
         List<GAVariant> gaVariants = GAVariantFactory.create(variants);
@@ -111,11 +138,12 @@ public class GA4GHVariantWSServer extends EvaWSServer {
     }
 
     @RequestMapping(value = "/search", method = RequestMethod.POST, consumes = "application/json")
-    public GASearchVariantsResponse getVariantsByRegion(GASearchVariantRequest request)
+    public GASearchVariantsResponse getVariantsByRegion(GASearchVariantRequest request,
+                                                        HttpServletResponse response)
             throws UnknownHostException, IOException, AnnotationMetadataNotFoundException {
         request.validate();
         return getVariantsByRegion(request.getReferenceName(), request.getStart(), request.getEnd(),
-                request.getVariantSetIds(), request.getPageToken(), request.getPageSize());
+                request.getVariantSetIds(), request.getPageToken(), request.getPageSize(), null, response);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -0,0 +1,304 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
+import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.services.BeaconAllele;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of the (chromosome, start, alternate allele) of the variants in the beacon databases, one for each
+ * study and one for all of them. If a filter doesn't contain an allele, there is no such variant and the beacon can
+ * answer without querying the database.
+ *
+ * The filters are a snapshot of the variants when they were built, so they must be rebuilt after loading new
+ * variants, otherwise those would be reported as missing. For that reason they are disabled by default
+ * (eva.beacon.bloom-filter.enabled). When enabled, they are loaded from the files saved in
+ * eva.beacon.bloom-filter.directory at startup, or built if there are no files, in a background thread. Until a
+ * database has its filters, every query goes to the database.
+ */
+@Service
+public class BeaconBloomFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BeaconBloomFilter.class);
+
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    private static final String FILE_EXTENSION = ".bloom";
+
+    private static final Funnel<CharSequence> FUNNEL = Funnels.stringFunnel(StandardCharsets.UTF_8);
+
+    @Autowired
+    private VariantQueryService variantQueryService;
+
+    @Value("${eva.beacon.bloom-filter.enabled:false}")
+    private boolean enabled;
+
+    @Value("${eva.beacon.bloom-filter.directory:${java.io.tmpdir}/eva-beacon-bloom-filters}")
+    private String directory;
+
+    @Value("${eva.beacon.bloom-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private final Map<String, DatabaseFilters> filtersByDatabase = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            for (String databaseName : getDatabaseNames()) {
+                try {
+                    if (!load(databaseName)) {
+                        build(databaseName);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Could not prepare the beacon Bloom filters of database " + databaseName, e);
+                }
+            }
+        }, "beacon-bloom-filter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @param studies studies to look in, or null or empty to look in all of them
+     * @return false if no variant in the studies has the given position and alternate allele, true if there may be
+     * one, or if that can't be decided because the filters are disabled or not available
+     */
+    public boolean mightContain(String databaseName, String chromosome, long start, String alternate,
+                                List<String> studies) {
+        DatabaseFilters filters = enabled && databaseName != null ? filtersByDatabase.get(databaseName) : null;
+        if (filters == null) {
+            return true;
+        }
+        String key = getKey(chromosome, start, alternate);
+        if (studies == null || studies.isEmpty()) {
+            return filters.all.mightContain(key);
+        }
+        for (String study : studies) {
+            BloomFilter<CharSequence> studyFilter = filters.byStudy.get(study);
+            // A study without a filter may have been loaded after the filters were built
+            if (studyFilter == null || studyFilter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the filters of a database from all its variants, saves them to a file and starts using them. The
+     * database selected in MultiMongoDbFactory for the current thread is kept.
+     */
+    public synchronized void build(String databaseName) throws IOException {
+        logger.info("Building beacon Bloom filters of database {}", databaseName);
+        String currentDatabaseName = MultiMongoDbFactory.getDatabaseNameForCurrentThread();
+        try {
+            MultiMongoDbFactory.setDatabaseNameForCurrentThread(databaseName);
+
+            // Filters are sized with the number of variants, to keep the false positive probability
+            Map<String, Long> countsByStudy = variantQueryService.countByStudy();
+            long totalCount = countsByStudy.values().stream().mapToLong(Long::longValue).sum();
+            DatabaseFilters filters = new DatabaseFilters(createFilter(totalCount), new HashMap<>());
+            countsByStudy.forEach((study, count) -> filters.byStudy.put(study, createFilter(count)));
+
+            try (Stream<BeaconAllele> alleles = variantQueryService.streamBeaconAlleles()) {
+                alleles.forEach(allele -> {
+                    String key = getKey(allele.getChromosome(), allele.getStart(), allele.getAlternate());
+                    filters.all.put(key);
+                    for (String study : allele.getStudyIds()) {
+                        BloomFilter<CharSequence> studyFilter = filters.byStudy.get(study);
+                        if (studyFilter != null) {
+                            studyFilter.put(key);
+                        }
+                    }
+                });
+            }
+
+            save(databaseName, filters);
+            filtersByDatabase.put(databaseName, filters);
+        } finally {
+            if (currentDatabaseName == null) {
+                MultiMongoDbFactory.clearDatabaseNameForCurrentThread();
+            } else {
+                MultiMongoDbFactory.setDatabaseNameForCurrentThread(currentDatabaseName);
+            }
+        }
+    }
+
+    public void buildAll() throws IOException {
+        for (String databaseName : getDatabaseNames()) {
+            build(databaseName);
+        }
+    }
+
+    /**
+     * @return for each database with filters, the number of studies and the approximate number of alleles
+     */
+    public Map<String, Map<String, Long>> getSummary() {
+        Map<String, Map<String, Long>> summary = new LinkedHashMap<>();
+        filtersByDatabase.forEach((databaseName, filters) -> {
+            Map<String, Long> databaseSummary = new LinkedHashMap<>();
+            databaseSummary.put("studies", (long) filters.byStudy.size());
+            databaseSummary.put("alleles", filters.all.approximateElementCount());
+            summary.put(databaseName, databaseSummary);
+        });
+        return summary;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private List<String> getDatabaseNames() {
+        List<String> databaseNames = new ArrayList<>();
+        for (String assemblyId : BeaconDatasetCatalogue.ASSEMBLIES) {
+            databaseNames.add(DBAdaptorConnector.getDBName(BeaconDatasetCatalogue.SPECIES, assemblyId.toLowerCase()));
+        }
+        return databaseNames;
+    }
+
+    private BloomFilter<CharSequence> createFilter(long expectedInsertions) {
+        return BloomFilter.create(FUNNEL, Math.max(expectedInsertions, 1), falsePositiveProbability);
+    }
+
+    private String getKey(String chromosome, long start, String alternate) {
+        return chromosome + ":" + start + ":" + alternate;
+    }
+
+    private Path getPath(String databaseName) {
+        return Paths.get(directory, databaseName + FILE_EXTENSION);
+    }
+
+    private void save(String databaseName, DatabaseFilters filters) throws IOException {
+        Path path = getPath(databaseName);
+        Files.createDirectories(path.getParent());
+        Path temporaryPath = Files.createTempFile(path.getParent(), databaseName, FILE_EXTENSION);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryPath)))) {
+            output.writeInt(FILE_FORMAT_VERSION);
+            filters.all.writeTo(output);
+            output.writeInt(filters.byStudy.size());
+            for (Map.Entry<String, BloomFilter<CharSequence>> studyFilter : filters.byStudy.entrySet()) {
+                output.writeUTF(studyFilter.getKey());
+                studyFilter.getValue().writeTo(output);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the filters of a database from its file, which is memory-mapped instead of copied through buffers.
+     *
+     * @return false if there is no file, or it was written by an incompatible version
+     */
+    boolean load(String databaseName) throws IOException {
+        Path path = getPath(databaseName);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            DataInputStream input = new DataInputStream(new ByteBufferInputStream(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+            if (input.readInt() != FILE_FORMAT_VERSION) {
+                return false;
+            }
+            DatabaseFilters filters = new DatabaseFilters(BloomFilter.readFrom(input, FUNNEL), new HashMap<>());
+            int numberOfStudies = input.readInt();
+            for (int i = 0; i < numberOfStudies; i++) {
+                String study = input.readUTF();
+                filters.byStudy.put(study, BloomFilter.readFrom(input, FUNNEL));
+            }
+            filtersByDatabase.put(databaseName, filters);
+        }
+        logger.info("Loaded beacon Bloom filters of database {} from {}", databaseName, path);
+        return true;
+    }
+
+    private static class DatabaseFilters {
+
+        private final BloomFilter<CharSequence> all;
+
+        private final Map<String, BloomFilter<CharSequence>> byStudy;
+
+        DatabaseFilters(BloomFilter<CharSequence> all, Map<String, BloomFilter<CharSequence>> byStudy) {
+            this.all = all;
+            this.byStudy = byStudy;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int bytesRead = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, bytesRead);
+            return bytesRead;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.ac.ebi.eva.commons.core.models.VariantSource;
+import uk.ac.ebi.eva.commons.mongodb.services.VariantSourceService;
+import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
+import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the variant sources (files of studies) served by the beacon, per assembly, indexed by dataset
+ * identifier ("studyId_fileId"). The sources only change when new studies are loaded, so they are read once at
+ * startup and then refreshed periodically, instead of on every beacon request.
+ */
+@Service
+public class BeaconDatasetCatalogue {
+
+    private static final Logger logger = LoggerFactory.getLogger(BeaconDatasetCatalogue.class);
+
+    public static final String SPECIES = "hsapiens";
+
+    public static final List<String> ASSEMBLIES = Arrays.asList("GRCh37", "GRCh38");
+
+    @Autowired
+    private VariantSourceService variantSourceService;
+
+    private volatile Map<String, Map<String, VariantSource>> variantSourcesByAssembly;
+
+    private volatile Date lastRefresh;
+
+    /**
+     * @param assemblyId assembly name, case insensitive, e.g. GRCh37
+     * @return variant sources indexed by dataset identifier, or an empty map if the assembly is not served
+     */
+    public Map<String, VariantSource> getVariantSources(String assemblyId) {
+        Map<String, Map<String, VariantSource>> catalogue = variantSourcesByAssembly;
+        if (catalogue == null) {
+            catalogue = refresh();
+        }
+        return catalogue.getOrDefault(assemblyId.toLowerCase(), Collections.emptyMap());
+    }
+
+    @Scheduled(initialDelayString = "${eva.beacon.dataset-catalogue.initial-delay-ms:0}",
+               fixedDelayString = "${eva.beacon.dataset-catalogue.refresh-interval-ms:3600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Could not refresh the beacon dataset catalogue, the previous one will be used", e);
+        }
+    }
+
+    /**
+     * Reads the variant sources of every assembly again and replaces the catalogue. The database selected in
+     * MultiMongoDbFactory for the current thread is kept.
+     */
+    public synchronized Map<String, Map<String, VariantSource>> refresh() {
+        String databaseName = MultiMongoDbFactory.getDatabaseNameForCurrentThread();
+        try {
+            Map<String, Map<String, VariantSource>> catalogue = new LinkedHashMap<>();
+            for (String assemblyId : ASSEMBLIES) {
+                MultiMongoDbFactory.setDatabaseNameForCurrentThread(
+                        DBAdaptorConnector.getDBName(SPECIES, assemblyId.toLowerCase()));
+                Map<String, VariantSource> variantSources = new LinkedHashMap<>();
+                List<VariantSource> variantSourceList = variantSourceService.findAllVariantSourcesForBeacon();
+                if (variantSourceList != null) {
+                    variantSourceList.forEach(variantSource -> variantSources.put(getDatasetId(variantSource),
+                                                                                  variantSource));
+                }
+                catalogue.put(assemblyId.toLowerCase(), Collections.unmodifiableMap(variantSources));
+            }
+            variantSourcesByAssembly = Collections.unmodifiableMap(catalogue);
+            lastRefresh = new Date();
+            return variantSourcesByAssembly;
+        } finally {
+            if (databaseName == null) {
+                MultiMongoDbFactory.clearDatabaseNameForCurrentThread();
+            } else {
+                MultiMongoDbFactory.setDatabaseNameForCurrentThread(databaseName);
+            }
+        }
+    }
+
+    public Date getLastRefresh() {
+        return lastRefresh;
+    }
+
+    public static String getDatasetId(VariantSource variantSource) {
+        return variantSource.getStudyId() + "_" + variantSource.getFileId();
+    }
+}
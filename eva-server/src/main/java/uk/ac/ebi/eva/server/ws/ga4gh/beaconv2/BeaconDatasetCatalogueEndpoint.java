@@ -0,0 +1,57 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint to check the beacon dataset catalogue and refresh it after loading new studies. Like other
+ * actuator endpoints, it must be listed in management.endpoints.web.exposure.include to be available over HTTP.
+ */
+@Component
+@Endpoint(id = "beaconcatalogue")
+public class BeaconDatasetCatalogueEndpoint {
+
+    @Autowired
+    private BeaconDatasetCatalogue beaconDatasetCatalogue;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("lastRefresh", beaconDatasetCatalogue.getLastRefresh());
+        for (String assemblyId : BeaconDatasetCatalogue.ASSEMBLIES) {
+            summary.put(assemblyId, beaconDatasetCatalogue.getVariantSources(assemblyId).size());
+        }
+        return summary;
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        beaconDatasetCatalogue.refresh();
+        return summary();
+    }
+}
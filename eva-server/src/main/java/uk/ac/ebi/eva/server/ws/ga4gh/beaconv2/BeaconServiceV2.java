@@ -20,7 +20,6 @@
 package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleRequest;
 import uk.ac.ebi.eva.commons.beacon.models.BeaconError;
@@ -31,33 +30,41 @@ import uk.ac.ebi.eva.commons.beacon.models.Chromosome;
 import uk.ac.ebi.eva.commons.core.models.Region;
 import uk.ac.ebi.eva.commons.core.models.VariantSource;
 import uk.ac.ebi.eva.commons.core.models.VariantType;
-import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
 import uk.ac.ebi.eva.commons.mongodb.filter.FilterBuilder;
 import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
-import uk.ac.ebi.eva.commons.mongodb.services.VariantSourceService;
-import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
 import uk.ac.ebi.eva.lib.eva_utils.DBAdaptorConnector;
 import uk.ac.ebi.eva.lib.eva_utils.MultiMongoDbFactory;
+import uk.ac.ebi.eva.server.services.BeaconDatasetHits;
+import uk.ac.ebi.eva.server.services.BeaconQuery;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import javax.servlet.http.HttpServletResponse;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import static uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleRequest.IncludeDatasetResponsesEnum;
 
 @Service
 public class BeaconServiceV2 {
 
+    private static final BeaconDatasetHits NO_HITS = new BeaconDatasetHits(false, Collections.emptySet(),
+            Collections.emptyMap());
+
     @Autowired
-    private VariantWithSamplesAndAnnotationsService service;
+    private VariantQueryService variantQueryService;
 
     @Autowired
-    private VariantSourceService variantSourceService;
+    private BeaconDatasetCatalogue beaconDatasetCatalogue;
+
+    @Autowired
+    private BeaconBloomFilter beaconBloomFilter;
 
     public BeaconServiceV2() {
     }
@@ -70,16 +77,15 @@ public class BeaconServiceV2 {
 
     private List<BeaconDataset> getAllBeaconDatasets() {
         List<BeaconDataset> beaconDatasets = new ArrayList<>();
-        beaconDatasets.addAll(getBeaconDatasetsPerDatabase("hsapiens", "GRCh37"));
-        beaconDatasets.addAll(getBeaconDatasetsPerDatabase("hsapiens", "GRCh38"));
+        for (String assemblyId : BeaconDatasetCatalogue.ASSEMBLIES) {
+            beaconDatasets.addAll(getBeaconDatasetsPerAssembly(assemblyId));
+        }
         return beaconDatasets;
     }
 
-    private List<BeaconDataset> getBeaconDatasetsPerDatabase(String species, String assemblyId) {
+    private List<BeaconDataset> getBeaconDatasetsPerAssembly(String assemblyId) {
         List<BeaconDataset> beaconDatasets = new ArrayList<>();
-        MultiMongoDbFactory.setDatabaseNameForCurrentThread(DBAdaptorConnector.getDBName(species + "_" +
-                assemblyId.toLowerCase()));
-        List<VariantSource> variantSources = variantSourceService.findAllVariantSourcesForBeacon();
+        Collection<VariantSource> variantSources = beaconDatasetCatalogue.getVariantSources(assemblyId).values();
         variantSources.forEach(
                 variantSource -> beaconDatasets.add(
                         new BeaconDataset().id(variantSource.getStudyId())
@@ -108,37 +114,111 @@ public class BeaconServiceV2 {
         BeaconAlleleRequest request = buildBeaconAlleleRequest(chromosome, start, startMin, startMax, end, endMin,
                 endMax, referenceBases, alternateBases, variantType, assemblyId, studies, includeDatasetResponses);
 
-        VariantType type = variantType != null ? VariantType.valueOf(variantType) : null;
+        BeaconQuery query = buildBeaconQuery(chromosome, start, startMin, startMax, end, endMin, endMax,
+                referenceBases, alternateBases, variantType, studies);
 
-        Region startRange = start != null ? new Region(chromosome, start, start) : new Region(chromosome, startMin,
-                startMax);
-        Region endRange = end != null ? new Region(chromosome, end, end) : new Region(chromosome, endMin, endMax);
+        if (!mightExist(MultiMongoDbFactory.getDatabaseNameForCurrentThread(), chromosome, start, alternateBases,
+                studies)) {
+            return buildBeaconAlleleResponse(NO_HITS, request);
+        }
 
-        List<VariantRepositoryFilter> filters = new FilterBuilder().getBeaconFilters(referenceBases, alternateBases,
-                type, studies);
+        if (includeDatasetResponses == null || IncludeDatasetResponsesEnum.valueOf(includeDatasetResponses) ==
+                IncludeDatasetResponsesEnum.NONE) {
+            boolean exists = variantQueryService.existsByBeaconRegionAndFilters(query.getStartRange(),
+                    query.getEndRange(), query.getFilters());
+            return buildBeaconAlleleResponse(exists, request, null, null);
+        }
 
-        Integer pageSize = service.countByRegionAndOtherBeaconFilters(startRange, endRange, filters).intValue();
-        List<VariantMongo> variantMongoList;
+        BeaconDatasetHits datasetHits = variantQueryService.findBeaconDatasetHits(query.getStartRange(),
+                query.getEndRange(), query.getFilters());
+        return buildBeaconAlleleResponse(datasetHits, request);
+    }
 
-        if (pageSize > 0) {
-            if (includeDatasetResponses == null || IncludeDatasetResponsesEnum.valueOf(includeDatasetResponses) ==
-                    IncludeDatasetResponsesEnum.NONE) {
-                return buildBeaconAlleleResponse(true, request, null, null);
+    /**
+     * Answers several allele requests, each one validated like a single request. Valid requests are grouped by
+     * assembly, and those of each assembly are resolved with one aggregation per chromosome.
+     *
+     * @return the response to each request, in the same order, with an error for the invalid ones
+     */
+    public List<BeaconAlleleResponse> find(List<BeaconAlleleRequest> requestBodies) {
+        BeaconAlleleResponse[] responses = new BeaconAlleleResponse[requestBodies.size()];
+        BeaconAlleleRequest[] requests = new BeaconAlleleRequest[requestBodies.size()];
+        Map<String, Map<Integer, BeaconQuery>> queriesByDatabase = new LinkedHashMap<>();
+
+        for (int i = 0; i < requestBodies.size(); i++) {
+            BeaconAlleleRequest body = requestBodies.get(i);
+            if (body == null) {
+                responses[i] = buildErrorResponse("Please provide a query instead of null");
+                continue;
+            }
+            String chromosome = body.getReferenceName() == null ? null : body.getReferenceName().toString();
+            Long startMin = body.getStartMin() == null ? null : (long) body.getStartMin();
+            Long startMax = body.getStartMax() == null ? null : (long) body.getStartMax();
+            Long end = body.getEnd() == null ? null : (long) body.getEnd();
+            Long endMin = body.getEndMin() == null ? null : (long) body.getEndMin();
+            Long endMax = body.getEndMax() == null ? null : (long) body.getEndMax();
+            String includeDatasetResponses = body.getIncludeDatasetResponses() == null ? null :
+                    body.getIncludeDatasetResponses().toString();
+
+            try {
+                checkParameters(chromosome, body.getReferenceBases(), body.getStart(), end, body.getAlternateBases(),
+                        body.getVariantType(), body.getAssemblyId(), includeDatasetResponses, startMin, startMax,
+                        endMin, endMax);
+            } catch (IllegalArgumentException e) {
+                responses[i] = buildBeaconAlleleResponse(null, null, null, e.getMessage());
+                continue;
+            }
+
+            requests[i] = buildBeaconAlleleRequest(chromosome, body.getStart(), startMin, startMax, end, endMin,
+                    endMax, body.getReferenceBases(), body.getAlternateBases(), body.getVariantType(),
+                    body.getAssemblyId(), body.getDatasetIds(), includeDatasetResponses);
+
+            String databaseName = MultiMongoDbFactory.getDatabaseNameForCurrentThread();
+            if (mightExist(databaseName, chromosome, body.getStart(), body.getAlternateBases(),
+                    body.getDatasetIds())) {
+                queriesByDatabase.computeIfAbsent(databaseName, name -> new LinkedHashMap<>())
+                        .put(i, buildBeaconQuery(chromosome, body.getStart(), startMin, startMax, end, endMin, endMax,
+                                body.getReferenceBases(), body.getAlternateBases(), body.getVariantType(),
+                                body.getDatasetIds()));
+            } else {
+                responses[i] = buildBeaconAlleleResponse(NO_HITS, requests[i]);
             }
-            variantMongoList = service.findByRegionAndOtherBeaconFilters(startRange, endRange, filters,
-                    new PageRequest(0, pageSize));
-        } else {
-            variantMongoList = Collections.emptyList();
         }
 
-        if (variantMongoList.size() > 0) {
-            return buildBeaconAlleleResponse(true, request, buildDatasetAlleleResponses(variantMongoList,
-                    request), null);
-        } else {
-            return buildBeaconAlleleResponse(false, request, buildDatasetAlleleResponses(variantMongoList,
-                    request), null);
+        for (Map.Entry<String, Map<Integer, BeaconQuery>> databaseQueries : queriesByDatabase.entrySet()) {
+            MultiMongoDbFactory.setDatabaseNameForCurrentThread(databaseQueries.getKey());
+            List<Integer> requestIndexes = new ArrayList<>(databaseQueries.getValue().keySet());
+            List<BeaconDatasetHits> datasetHits = variantQueryService.findBeaconDatasetHits(
+                    new ArrayList<>(databaseQueries.getValue().values()));
+            for (int i = 0; i < requestIndexes.size(); i++) {
+                int requestIndex = requestIndexes.get(i);
+                responses[requestIndex] = buildBeaconAlleleResponse(datasetHits.get(i), requests[requestIndex]);
+            }
         }
+        return Arrays.asList(responses);
+    }
+
+    private BeaconQuery buildBeaconQuery(String chromosome, Long start, Long startMin, Long startMax, Long end,
+                                         Long endMin, Long endMax, String referenceBases, String alternateBases,
+                                         String variantType, List<String> studies) {
+        VariantType type = variantType != null ? VariantType.valueOf(variantType) : null;
+
+        Region startRange = start != null ? new Region(chromosome, start, start) : new Region(chromosome, startMin,
+                startMax);
+        Region endRange = end != null ? new Region(chromosome, end, end) : new Region(chromosome, endMin, endMax);
+
+        List<VariantRepositoryFilter> filters = new FilterBuilder().getBeaconFilters(referenceBases, alternateBases,
+                type, studies);
+        return new BeaconQuery(startRange, endRange, filters);
+    }
 
+    /**
+     * Only queries for a precise position and alternate allele can be ruled out by the Bloom filters.
+     */
+    private boolean mightExist(String databaseName, String chromosome, Long start, String alternateBases,
+                               List<String> studies) {
+        return start == null || alternateBases == null ||
+                beaconBloomFilter.mightContain(databaseName, chromosome, start, alternateBases, studies);
     }
 
     private void checkParameters(String chromosome, String referenceBases, Long start, Long end,
@@ -231,6 +311,16 @@ public class BeaconServiceV2 {
         }
     }
 
+    private BeaconAlleleResponse buildBeaconAlleleResponse(BeaconDatasetHits datasetHits,
+                                                           BeaconAlleleRequest request) {
+        return buildBeaconAlleleResponse(datasetHits.isExists(), request, buildDatasetAlleleResponses(datasetHits,
+                request), null);
+    }
+
+    BeaconAlleleResponse buildErrorResponse(String errorMessage) {
+        return buildBeaconAlleleResponse(null, null, null, errorMessage);
+    }
+
     private BeaconAlleleRequest buildBeaconAlleleRequest(String chromosome, Long start, Long startMin, Long startMax,
                                                          Long end, Long endMin, Long endMax, String referenceBases,
                                                          String alternateBases, String variantType, String assemblyId,
@@ -252,7 +342,7 @@ public class BeaconServiceV2 {
                         .valueOf(includeDatasetResponses));
     }
 
-    private List<BeaconDatasetAlleleResponse> buildDatasetAlleleResponses(List<VariantMongo> variantMongoList,
+    private List<BeaconDatasetAlleleResponse> buildDatasetAlleleResponses(BeaconDatasetHits datasetHits,
                                                                           BeaconAlleleRequest request) {
         List<BeaconDatasetAlleleResponse> datasetAllelResponses = new ArrayList<BeaconDatasetAlleleResponse>();
 
@@ -261,28 +351,10 @@ public class BeaconServiceV2 {
             return null;
         }
 
-        List<VariantSource> variantSourceList = variantSourceService.findAllVariantSourcesForBeacon();
+        Set<String> datasetIdsPresent = datasetHits.getDatasetIds();
+        Map<String, Float> datasetIdToFrequencyMapper = datasetHits.getFrequencies();
 
-        HashSet<String> datasetIdsPresent = new HashSet<>();
-        HashMap<String, Float> datasetIdToFrequencyMapper = new HashMap<>();
-
-        variantMongoList.forEach(variantMongo -> {
-            variantMongo.getSourceEntries().forEach(variantSourceEntryMongo -> {
-                datasetIdsPresent.add(variantSourceEntryMongo.getStudyId() + "_" + variantSourceEntryMongo.getFileId());
-            });
-            variantMongo.getVariantStatsMongo().forEach(variantStatisticsMongo -> {
-                if (variantMongo.getAlternate().equalsIgnoreCase(variantStatisticsMongo.getMafAllele()) ||
-                        variantMongo.getReference().equalsIgnoreCase(variantStatisticsMongo.getMafAllele())) {
-                    datasetIdToFrequencyMapper.put(variantStatisticsMongo.getStudyId() + "_" + variantStatisticsMongo
-                            .getFileId(), variantStatisticsMongo.getMaf());
-                }
-            });
-        });
-
-        HashMap<String, VariantSource> allDatasetIds = new HashMap<>();
-        variantSourceList.forEach(variantSource -> {
-            allDatasetIds.put(variantSource.getStudyId() + "_" + variantSource.getFileId(), variantSource);
-        });
+        Map<String, VariantSource> allDatasetIds = beaconDatasetCatalogue.getVariantSources(request.getAssemblyId());
 
         allDatasetIds.forEach((datasetId, variantSource) -> {
             if (datasetIdsPresent.contains(datasetId)) {
@@ -22,6 +22,8 @@ package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 import uk.ac.ebi.eva.commons.beacon.models.Beacon;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.*;
 import org.slf4j.Logger;
@@ -45,6 +47,7 @@ import java.util.Map;
 @javax.annotation.Generated(value = "io.swagger.codegen.v3.generators.java.SpringCodegen", date = "2019-06-18T18:08:34.969Z[GMT]")
 @Controller
 @RequestMapping(value = "/v2/beacon")
+@Bulkhead(BulkheadGroup.BEACON)
 public class DefaultApiController implements DefaultApi {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultApiController.class);
@@ -21,9 +21,12 @@ package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleRequest;
 import uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleResponse;
 import uk.ac.ebi.eva.commons.beacon.models.Chromosome;
+import uk.ac.ebi.eva.server.Bulkhead;
+import uk.ac.ebi.eva.server.BulkheadGroup;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.*;
 import org.slf4j.Logger;
@@ -49,10 +52,13 @@ import java.util.Map;
 @javax.annotation.Generated(value = "io.swagger.codegen.v3.generators.java.SpringCodegen", date = "2019-06-18T18:08:34.969Z[GMT]")
 @Controller
 @RequestMapping(value = "/v2/beacon")
+@Bulkhead(BulkheadGroup.BEACON)
 public class QueryApiController implements QueryApi {
 
     private static final Logger log = LoggerFactory.getLogger(QueryApiController.class);
 
+    private static final int BATCH_SIZE_LIMIT = 1000;
+
     private final ObjectMapper objectMapper;
 
     private final HttpServletRequest request;
@@ -86,4 +92,18 @@ public class QueryApiController implements QueryApi {
         }
     }
 
+    @ApiOperation(value = "", nickname = "postBeaconAlleleResponses", notes = "Gets responses to several beacon queries for allele information, in the same order as the queries. Invalid queries get a response with an error.", response = BeaconAlleleResponse.class, responseContainer = "List", tags={  })
+    @RequestMapping(value = "/query/batch",
+        produces = { "application/json" },
+        consumes = { "application/json" },
+        method = RequestMethod.POST)
+    public ResponseEntity<List<BeaconAlleleResponse>> postBeaconAlleleResponses(@ApiParam(value = "" ,required=true ) @RequestBody List<BeaconAlleleRequest> body) {
+        if (body.isEmpty() || body.size() > BATCH_SIZE_LIMIT) {
+            BeaconAlleleResponse response = beaconServiceV2.buildErrorResponse(
+                    "Please provide between 1 and " + BATCH_SIZE_LIMIT + " queries");
+            return new ResponseEntity<>(Arrays.asList(response), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(beaconServiceV2.find(body), HttpStatus.OK);
+    }
+
 }
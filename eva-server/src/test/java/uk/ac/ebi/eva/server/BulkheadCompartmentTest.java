@@ -0,0 +1,110 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BulkheadCompartmentTest {
+
+    private static final long LONG_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    @Test
+    public void slotIsTakenStraightAway() {
+        BulkheadAspect.Compartment compartment = new BulkheadAspect.Compartment(2, 0, LONG_TIMEOUT_MS);
+        assertTrue(compartment.enter());
+        assertTrue(compartment.enter());
+        assertEquals(2, compartment.getActive());
+        assertEquals(0, compartment.getQueued());
+
+        compartment.leave();
+        assertEquals(1, compartment.getActive());
+    }
+
+    @Test
+    public void queuedRequestGetsTheSlotWhenItIsReleased() throws Exception {
+        BulkheadAspect.Compartment compartment = new BulkheadAspect.Compartment(1, 1, LONG_TIMEOUT_MS);
+        assertTrue(compartment.enter());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> queued = executor.submit(compartment::enter);
+            waitUntilQueued(compartment, 1);
+            assertFalse(queued.isDone());
+
+            compartment.leave();
+            assertTrue(queued.get(LONG_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            assertEquals(1, compartment.getActive());
+            assertEquals(0, compartment.getQueued());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void requestIsRejectedWhenTheQueueIsFull() throws Exception {
+        BulkheadAspect.Compartment compartment = new BulkheadAspect.Compartment(1, 1, LONG_TIMEOUT_MS);
+        assertTrue(compartment.enter());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> queued = executor.submit(compartment::enter);
+            waitUntilQueued(compartment, 1);
+
+            long start = System.nanoTime();
+            assertFalse(compartment.enter());
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(LONG_TIMEOUT_MS));
+            assertEquals(1, compartment.getQueued());
+
+            compartment.leave();
+            assertTrue(queued.get(LONG_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void queuedRequestIsRejectedAfterTheTimeout() {
+        long queueTimeoutMs = 50;
+        BulkheadAspect.Compartment compartment = new BulkheadAspect.Compartment(1, 1, queueTimeoutMs);
+        assertTrue(compartment.enter());
+
+        long start = System.nanoTime();
+        assertFalse(compartment.enter());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs));
+        assertEquals(0, compartment.getQueued());
+        assertEquals(1, compartment.getActive());
+    }
+
+    private void waitUntilQueued(BulkheadAspect.Compartment compartment, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LONG_TIMEOUT_MS);
+        while (compartment.getQueued() < expected) {
+            assertTrue("The request was not queued in time", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
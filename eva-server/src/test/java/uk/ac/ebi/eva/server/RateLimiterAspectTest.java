@@ -0,0 +1,194 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import uk.ac.ebi.eva.server.ws.RateLimitErrorHandler;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RateLimiterAspectTest {
+
+    private static final String CLIENT = "192.168.0.1";
+
+    private static final String OTHER_CLIENT = "192.168.0.2";
+
+    private GenericApplicationContext applicationContext;
+
+    @Before
+    public void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(UnitRateLimitCost.class);
+        applicationContext.registerBean(ExpensiveCost.class);
+        applicationContext.refresh();
+    }
+
+    @Test
+    public void requestsOverTheLimitAreRejected() throws Exception {
+        LimitedService service = createService(0);
+        service.cheap(request(CLIENT));
+        service.cheap(request(CLIENT));
+
+        RateLimitException exception = assertRejected(() -> service.cheap(request(CLIENT)));
+        assertEquals(1, exception.getRetryAfterSeconds());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new RateLimitErrorHandler().handleRateLimitExceededException(exception, response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void retryAfterCoversTheCostOfTheRequest() throws Exception {
+        LimitedService service = createService(0);
+        service.expensive(request(CLIENT));
+
+        assertEquals(ExpensiveCost.COST, assertRejected(() -> service.expensive(request(CLIENT)))
+                .getRetryAfterSeconds());
+    }
+
+    @Test
+    public void costOverTheCapacityIsChargedInFull() throws Exception {
+        LimitedService service = createService(0);
+        service.overCapacity(request(CLIENT));
+
+        assertEquals(ExpensiveCost.COST, assertRejected(() -> service.overCapacity(request(CLIENT)))
+                .getRetryAfterSeconds());
+    }
+
+    @Test
+    public void eachEndpointHasItsOwnBucket() throws Exception {
+        LimitedService service = createService(0);
+        service.cheap(request(CLIENT));
+        service.cheap(request(CLIENT));
+        assertRejected(() -> service.cheap(request(CLIENT)));
+
+        service.expensive(request(CLIENT));
+    }
+
+    @Test
+    public void eachClientHasItsOwnBucket() throws Exception {
+        LimitedService service = createService(0);
+        service.cheap(request(CLIENT));
+        service.cheap(request(CLIENT));
+        assertRejected(() -> service.cheap(request(CLIENT)));
+
+        service.cheap(request(OTHER_CLIENT));
+    }
+
+    @Test
+    public void forwardedForIsIgnoredWithoutTrustedProxies() throws Exception {
+        LimitedService service = createService(0);
+        service.cheap(request(CLIENT, "10.0.0.1"));
+        service.cheap(request(CLIENT, "10.0.0.2"));
+
+        assertRejected(() -> service.cheap(request(CLIENT, "10.0.0.3")));
+    }
+
+    @Test
+    public void clientBehindTrustedProxyIsTheLastForwardedForEntry() throws Exception {
+        LimitedService service = createService(1);
+        service.cheap(request(CLIENT, "10.0.0.1, " + OTHER_CLIENT));
+        service.cheap(request(CLIENT, "10.0.0.2, " + OTHER_CLIENT));
+        assertRejected(() -> service.cheap(request(CLIENT, "10.0.0.3, " + OTHER_CLIENT)));
+
+        service.cheap(request(CLIENT, "10.0.0.3"));
+    }
+
+    @Test
+    public void clientBehindSeveralTrustedProxies() throws Exception {
+        LimitedService service = createService(2);
+        service.cheap(request(CLIENT, "10.0.0.1, " + OTHER_CLIENT + ", 172.16.0.1"));
+        service.cheap(request(CLIENT, "10.0.0.2, " + OTHER_CLIENT + ", 172.16.0.2"));
+
+        assertRejected(() -> service.cheap(request(CLIENT, OTHER_CLIENT + ", 172.16.0.3")));
+    }
+
+    private LimitedService createService(int trustedProxies) {
+        RateLimiterAspect aspect = new RateLimiterAspect(applicationContext, new SimpleMeterRegistry(), true, 1000,
+                                                         600, trustedProxies);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new LimitedService());
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private HttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private HttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+
+    private RateLimitException assertRejected(LimitedCall call) {
+        try {
+            call.run();
+        } catch (RateLimitException e) {
+            return e;
+        }
+        fail("The request should have been rejected by the rate limit");
+        return null;
+    }
+
+    private interface LimitedCall {
+        void run() throws RateLimitException;
+    }
+
+    public static class LimitedService {
+
+        @RateLimit(2)
+        public void cheap(HttpServletRequest request) throws RateLimitException {
+        }
+
+        @RateLimit(value = 1, burst = ExpensiveCost.COST, cost = ExpensiveCost.class)
+        public void expensive(HttpServletRequest request) throws RateLimitException {
+        }
+
+        @RateLimit(value = 1, cost = ExpensiveCost.class)
+        public void overCapacity(HttpServletRequest request) throws RateLimitException {
+        }
+    }
+
+    public static class ExpensiveCost implements RateLimitCost {
+
+        static final int COST = 3;
+
+        @Override
+        public double estimate(HttpServletRequest request) {
+            return COST;
+        }
+    }
+}
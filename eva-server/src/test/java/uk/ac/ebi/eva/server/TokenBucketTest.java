@@ -0,0 +1,82 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burstIsAllowedAndThenRejected() {
+        TokenBucket bucket = new TokenBucket(5, 5, 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(1, 0));
+        }
+        long waitNanos = bucket.tryAcquire(1, 0);
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= ONE_SECOND / 5 + 1);
+    }
+
+    @Test
+    public void permitsAreRefilledOverTime() {
+        TokenBucket bucket = new TokenBucket(5, 5, 0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(1, 0);
+        }
+        assertEquals(0, bucket.tryAcquire(1, ONE_SECOND / 4));
+        assertTrue(bucket.tryAcquire(1, ONE_SECOND / 4) > 0);
+    }
+
+    @Test
+    public void requestOverCapacityLeavesTheBucketInDebt() {
+        TokenBucket bucket = new TokenBucket(5, 5, 0);
+        assertEquals(0, bucket.tryAcquire(15, 0));
+
+        // Two seconds to pay the 10 permits of debt, and then one more permit
+        long waitNanos = bucket.tryAcquire(1, 0);
+        assertTrue(waitNanos > 2 * ONE_SECOND);
+        assertTrue(waitNanos <= 2 * ONE_SECOND + ONE_SECOND / 5 + 1);
+        assertTrue(bucket.tryAcquire(1, 2 * ONE_SECOND) > 0);
+        assertEquals(0, bucket.tryAcquire(1, 2 * ONE_SECOND + ONE_SECOND / 5));
+    }
+
+    @Test
+    public void requestOverCapacityWaitsForAFullBucket() {
+        TokenBucket bucket = new TokenBucket(5, 5, 0);
+        assertEquals(0, bucket.tryAcquire(1, 0));
+
+        long waitNanos = bucket.tryAcquire(15, 0);
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= ONE_SECOND / 5 + 1);
+    }
+
+    @Test
+    public void refillDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 2, 0);
+        assertEquals(0, bucket.tryAcquire(2, 10 * ONE_SECOND));
+        assertTrue(bucket.tryAcquire(1, 10 * ONE_SECOND) > 0);
+    }
+}
@@ -28,6 +28,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,9 +42,11 @@ import uk.ac.ebi.eva.lib.metadata.eva.ArchiveEvaproDBAdaptor;
 import uk.ac.ebi.eva.lib.metadata.dgva.StudyDgvaDBAdaptor;
 import uk.ac.ebi.eva.lib.metadata.eva.StudyEvaproDBAdaptor;
 import uk.ac.ebi.eva.lib.models.Assembly;
+import uk.ac.ebi.eva.lib.models.SpeciesAndTypeCounts;
 import uk.ac.ebi.eva.lib.models.VariantStudy;
 import uk.ac.ebi.eva.lib.utils.QueryResponse;
 import uk.ac.ebi.eva.lib.utils.QueryResult;
+import uk.ac.ebi.eva.server.services.ArchiveMetadataCache;
 
 import java.io.IOException;
 import java.net.URI;
@@ -63,6 +67,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -88,6 +94,9 @@ public class ArchiveWSServerTest {
     @MockBean
     private VariantStudySummaryService service;
 
+    @Autowired
+    private ArchiveMetadataCache archiveMetadataCache;
+
     @Before
     public void setup() throws URISyntaxException, IOException {
         // species test data
@@ -128,13 +137,11 @@ public class ArchiveWSServerTest {
         Map<String, Long> studiesGroupedBySpeciesName = Stream.of(study1, study2, study3).collect(
                 Collectors.groupingBy(VariantStudy::getSpeciesCommonName,
                                       Collectors.counting()));
-        given(archiveEvaproDBAdaptor.countStudiesPerSpecies(anyObject()))
-                .willReturn(encapsulateInQueryResult(studiesGroupedBySpeciesName.entrySet().toArray()));
         Map<String, Long> studiesGroupedByStudyType = Stream.of(study1, study2, study3).map(s -> s.getType().toString())
                                                        .collect(Collectors.groupingBy(Function.identity(),
                                                                                       Collectors.counting()));
-        given(archiveEvaproDBAdaptor.countStudiesPerType(anyObject()))
-                .willReturn(encapsulateInQueryResult(studiesGroupedByStudyType.entrySet().toArray()));
+        given(archiveEvaproDBAdaptor.countStudiesPerSpeciesAndType(anyObject()))
+                .willReturn(encapsulateCountsInQueryResult(studiesGroupedBySpeciesName, studiesGroupedByStudyType));
 
 
         VariantStudy svStudy1 = new VariantStudy("Human SV Test study 1", "svS1", null, "SV study 1 description",
@@ -157,15 +164,14 @@ public class ArchiveWSServerTest {
 
         Map<String, Long> svStudiesGroupedBySpeciesName = Stream.of(svStudy1, svStudy2, svStudy3)
                 .collect(Collectors.groupingBy(VariantStudy::getSpeciesCommonName, Collectors.counting()));
-        given(archiveDgvaDBAdaptor.countStudiesPerSpecies(anyObject()))
-                .willReturn(encapsulateInQueryResult(svStudiesGroupedBySpeciesName.entrySet().toArray()));
 
         Map<String, Long> svStudiesGroupedByStudyType = Stream.of(svStudy1, svStudy2, svStudy3)
                                                               .map(s -> s.getType().toString())
                                                               .collect(Collectors.groupingBy(Function.identity(),
                                                                                              Collectors.counting()));
-        given(archiveDgvaDBAdaptor.countStudiesPerType(anyObject()))
-                .willReturn(encapsulateInQueryResult(svStudiesGroupedByStudyType.entrySet().toArray()));
+        given(archiveDgvaDBAdaptor.countStudiesPerSpeciesAndType(anyObject()))
+                .willReturn(encapsulateCountsInQueryResult(svStudiesGroupedBySpeciesName,
+                                                           svStudiesGroupedByStudyType));
 
         List<VariantStudySummary> studies = buildVariantStudySummaries();
         given(service.findAll()).willReturn(studies);
@@ -185,6 +191,12 @@ public class ArchiveWSServerTest {
         return new QueryResult<>(null, 0, results.length, results.length, null, null, Arrays.asList(results));
     }
 
+    private QueryResult<SpeciesAndTypeCounts> encapsulateCountsInQueryResult(Map<String, Long> speciesCounts,
+                                                                             Map<String, Long> typeCounts) {
+        return encapsulateInQueryResult(new SpeciesAndTypeCounts(new ArrayList<>(speciesCounts.entrySet()),
+                                                                 new ArrayList<>(typeCounts.entrySet())));
+    }
+
 
     @Test
     public void testCountSpecies() throws URISyntaxException {
@@ -382,6 +394,46 @@ public class ArchiveWSServerTest {
         assertGetStudiesStats(url);
     }
 
+    @Test
+    public void testCountFilesIsCached() throws URISyntaxException {
+        archiveMetadataCache.invalidateAll();
+        assertGetCount("/v1/meta/files/count", 5);
+        assertGetCount("/v1/meta/files/count", 5);
+        verify(archiveEvaproDBAdaptor, times(1)).countFiles();
+
+        archiveMetadataCache.invalidateAll();
+        assertGetCount("/v1/meta/files/count", 5);
+        verify(archiveEvaproDBAdaptor, times(2)).countFiles();
+    }
+
+    @Test
+    public void testCountFilesNotModified() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/v1/meta/files/count", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+        assertTrue(response.getHeaders().getCacheControl().contains("max-age"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        response = restTemplate.exchange("/v1/meta/files/count", HttpMethod.GET, new HttpEntity<>(headers),
+                                         String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+
+        archiveMetadataCache.invalidateAll();
+        response = restTemplate.exchange("/v1/meta/files/count", HttpMethod.GET, new HttpEntity<>(headers),
+                                         String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+
+        given(this.archiveEvaproDBAdaptor.countFiles()).willReturn(encapsulateInQueryResult(6L));
+        archiveMetadataCache.invalidateAll();
+        response = restTemplate.exchange("/v1/meta/files/count", HttpMethod.GET, new HttpEntity<>(headers),
+                                         String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(eTag, response.getHeaders().getETag());
+    }
+
     private void assertGetStudiesStats(String url) {
         ResponseEntity<QueryResponse<QueryResult<ObjectNode>>> response = restTemplate.exchange(
                 url, HttpMethod.GET, null,
@@ -0,0 +1,84 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.eva.server.ws;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eva.bulkhead.region-scan.max-concurrent=0", "eva.bulkhead.region-scan.max-queue=0"})
+public class BulkheadErrorHandlerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private VariantWithSamplesAndAnnotationsService service;
+
+    @MockBean
+    private VariantQueryService variantQueryService;
+
+    @Test
+    public void fullBulkheadIsServiceUnavailable() throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/v1/genes/GeneId/variants?species=mmusculus_grcm38", String.class);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(service, never()).findByGenesAndComplexFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void exportIsNotInTheRegionScanBulkhead() throws Exception {
+        given(variantQueryService.streamByRegionsAndComplexFilters(any(), any(), any()))
+                .willAnswer(invocation -> Stream.empty());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.valueOf(RegionWSServerV2.NDJSON_MEDIA_TYPE)));
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+}
@@ -43,6 +43,8 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -105,4 +107,21 @@ public class FeaturesWSServerTest {
         assertEquals(0, queryResponse.getResponse().size());
     }
 
+    @Test
+    public void testGetFeaturesIsCached() throws URISyntaxException {
+        String featureName = "FBXO3";
+        given(service.findByIdOrName(featureName, featureName)).willReturn(Collections.singletonList(
+                new FeatureCoordinates("id", featureName, "feature", "chr", 0, 1)));
+
+        String url = "/v1/features/" + featureName + "?species=hsapiens_grch37";
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<QueryResponse<QueryResult<FeatureCoordinates>>> response = restTemplate.exchange(
+                    url, HttpMethod.GET, null,
+                    new ParameterizedTypeReference<QueryResponse<QueryResult<FeatureCoordinates>>>() {});
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(featureName, response.getBody().getResponse().get(0).getResult().get(0).getName());
+        }
+        verify(service, times(1)).findByIdOrName(featureName, featureName);
+    }
+
 }
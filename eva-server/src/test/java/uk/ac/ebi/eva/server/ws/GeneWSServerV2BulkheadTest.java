@@ -0,0 +1,87 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import uk.ac.ebi.eva.commons.core.models.FeatureCoordinates;
+import uk.ac.ebi.eva.commons.core.models.Region;
+import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.services.FeatureService;
+import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+
+/**
+ * The gene web service calls the region one, and both are in the region-scan bulkhead, so a gene request must take
+ * only one slot of it.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eva.bulkhead.region-scan.max-concurrent=1", "eva.bulkhead.region-scan.max-queue=0"})
+public class GeneWSServerV2BulkheadTest {
+
+    private static final String GENE_ID = "ENSG00000227232";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private FeatureService featureService;
+
+    @MockBean
+    private VariantWithSamplesAndAnnotationsService variantService;
+
+    @Before
+    public void setUp() throws Exception {
+        VariantWithSamplesAndAnnotation variantEntity = new VariantWithSamplesAndAnnotation("20", 60100, 60100,
+                                                                                            "A", "C", "rs1");
+        List<Region> oneRegion = Collections.singletonList(new Region("20", 60000L, 62000L));
+        given(variantService.findByRegionsAndComplexFilters(eq(oneRegion), any(), any(), any(), any()))
+                .willReturn(Collections.singletonList(variantEntity));
+        given(variantService.countByRegionsAndComplexFilters(eq(oneRegion), any())).willReturn(1L);
+
+        List<String> geneIds = Collections.singletonList(GENE_ID);
+        given(featureService.findAllByGeneIdsOrGeneNames(eq(geneIds), eq(geneIds))).willReturn(
+                Collections.singletonList(new FeatureCoordinates(GENE_ID, "id", "feature", "20", 60000L, 62000L)));
+    }
+
+    @Test
+    public void geneRequestTakesOneSlot() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/v2/genes/" + GENE_ID + "/variants?species=mmusculus&assembly=grcm38", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+}
@@ -48,6 +48,8 @@ import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsSe
 import uk.ac.ebi.eva.lib.Profiles;
 import uk.ac.ebi.eva.server.configuration.MongoRepositoryTestConfiguration;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static com.lordofthejars.nosqlunit.mongodb.MongoDbRule.MongoDbRuleBuilder.newMongoDbRule;
@@ -129,4 +131,20 @@ public class IdentifierWSServerV2IntegrationTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
     }
+
+    @Test
+    public void testStreamVariantsByIdentifiers() throws Exception {
+        String url = "/v2/identifiers/variants?species=mmusculus&assembly=grcm38";
+        ResponseEntity<String> response = restTemplate.postForEntity(url, Arrays.asList("rs199692280", "rs0",
+                                                                                        "rs199692280"),
+                                                                     String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        String[] lines = response.getBody().split("\n");
+        assertEquals(2, lines.length);
+        Variant variant = objectMapper.readValue(lines[0], Variant.class);
+        assertEquals("20", variant.getChromosome());
+        assertTrue(variant.getIds().contains("rs199692280"));
+        assertEquals(Collections.singletonList("rs0"), JsonPath.parse(lines[1]).read("$['notFound']", List.class));
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws;
+
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class RegionQueryCostTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final RegionQueryCost regionQueryCost = new RegionQueryCost(1, 0.1, 1, 1.5, 250_000_000, 1000);
+
+    @Test
+    public void smallRegionHasMinimumCost() {
+        assertEquals(1, regionQueryCost.estimate(getRequest("20:60000-62000")), DELTA);
+    }
+
+    @Test
+    public void costGrowsWithRegionLength() {
+        assertEquals(10 + 0.1 + 0.2, regionQueryCost.estimate(getRequest("20:1-10000000")), DELTA);
+    }
+
+    @Test
+    public void wholeChromosomeUsesChromosomeLength() {
+        assertEquals(250 + 0.1 + 0.2, regionQueryCost.estimate(getRequest("20")), DELTA);
+    }
+
+    @Test
+    public void costGrowsWithPageSizeAndAnnotation() {
+        MockHttpServletRequest request = getRequest("20:1-2000000");
+        request.setParameter("pageSize", "500");
+        request.setParameter("annot-vep-version", "78");
+        assertEquals((2 + 0.1 + 5) * 1.5, regionQueryCost.estimate(request), DELTA);
+    }
+
+    @Test
+    public void streamCountsAsStreamResults() {
+        MockHttpServletRequest request = getRequest("20:1-2000000");
+        request.setParameter("pageSize", "500");
+        request.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+                             Collections.singleton(MediaType.valueOf(RegionWSServerV2.NDJSON_MEDIA_TYPE)));
+        assertEquals(2 + 0.1 + 10, regionQueryCost.estimate(request), DELTA);
+    }
+
+    private MockHttpServletRequest getRequest(String regionId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                             Collections.singletonMap("regionId", regionId));
+        return request;
+    }
+}
@@ -55,6 +55,7 @@ import java.util.List;
 import static com.lordofthejars.nosqlunit.mongodb.MongoDbRule.MongoDbRuleBuilder.newMongoDbRule;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -180,4 +181,65 @@ public class RegionWSServerV2IntegrationTest {
         assertEquals("For the given page size, there are 1 page(s), so the correct page range is from 0 to 0" +
                 " (both included).", response.getBody());
     }
+
+    @Test
+    public void testPaginationWithPageToken() {
+        String url = "/v2/regions/20:60000-63000/variants?species=mmusculus&assembly=grcm38&pageSize=1&pageToken=";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Configuration configuration = Configuration.defaultConfiguration()
+                .jsonProvider(new JacksonJsonProvider())
+                .mappingProvider(new JacksonMappingProvider(objectMapper))
+                .addOptions(Option.SUPPRESS_EXCEPTIONS);
+        List<Variant> variantList = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['_embedded']['variantList']", new TypeRef<List<Variant>>() {
+                });
+        assertEquals(1, variantList.size());
+        assertEquals(60100, variantList.get(0).getStart());
+
+        String nextLink = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['_links']['next']['href']", String.class);
+        assertTrue(nextLink.contains("pageToken="));
+
+        response = restTemplate.getForEntity(nextLink, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        variantList = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['_embedded']['variantList']", new TypeRef<List<Variant>>() {
+                });
+        assertEquals(1, variantList.size());
+        assertEquals(62300, variantList.get(0).getStart());
+
+        Integer pageNumber = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['page']['number']", Integer.class);
+        assertEquals(1, pageNumber.intValue());
+        assertNull(JsonPath.using(configuration).parse(response.getBody()).read("$['_links']['next']"));
+    }
+
+    @Test
+    public void testInvalidPageToken() {
+        String url = "/v2/regions/20:60000-63000/variants?species=mmusculus&assembly=grcm38&pageToken=invalid";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testPaginationWithEstimatedCount() {
+        String url = "/v2/regions/20:60000-63000/variants?species=mmusculus&assembly=grcm38&pageSize=1&count=estimate";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Configuration configuration = Configuration.defaultConfiguration()
+                .jsonProvider(new JacksonJsonProvider())
+                .mappingProvider(new JacksonMappingProvider(objectMapper))
+                .addOptions(Option.SUPPRESS_EXCEPTIONS);
+        Integer totalNumberOfElements = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['page']['totalElements']", Integer.class);
+        assertEquals(2, totalNumberOfElements.intValue());
+
+        String nextLink = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['_links']['next']['href']", String.class);
+        assertTrue(nextLink.contains("count=estimate"));
+        assertNull(JsonPath.using(configuration).parse(response.getBody()).read("$['_links']['last']"));
+    }
 }
@@ -33,28 +33,45 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
+import uk.ac.ebi.eva.commons.core.models.AnnotationMetadata;
 import uk.ac.ebi.eva.commons.core.models.Region;
 import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
+import uk.ac.ebi.eva.commons.mongodb.services.AnnotationMetadataService;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.AdditionalMatchers.or;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -68,6 +85,12 @@ public class RegionWSServerV2Test {
     @MockBean
     private VariantWithSamplesAndAnnotationsService service;
 
+    @MockBean
+    private VariantQueryService variantQueryService;
+
+    @MockBean
+    private AnnotationMetadataService annotationMetadataService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -92,6 +115,24 @@ public class RegionWSServerV2Test {
                 .findByRegionsAndComplexFilters(not(or(eq(oneRegion), eq(twoRegions))), any(), any(), any(), any()))
                 .willReturn(Collections.emptyList());
         given(service.countByRegionsAndComplexFilters(not(or(eq(oneRegion), eq(twoRegions))), any())).willReturn(0l);
+
+        Variant variant = new Variant("20", 60100, 60100, "A", "T");
+        variant.setMainId(MAIN_ID);
+        given(variantQueryService.streamByRegionsAndComplexFilters(eq(twoRegions), any(), any()))
+                .willAnswer(invocation -> Stream.of(variant, variant));
+        given(variantQueryService.streamByRegionsAndComplexFilters(not(eq(twoRegions)), any(), any()))
+                .willAnswer(invocation -> Stream.empty());
+
+        VariantMongo variantMongo = mock(VariantMongo.class);
+        given(variantMongo.getChromosome()).willReturn("20");
+        given(variantMongo.getStart()).willReturn(60100L);
+        given(variantMongo.getId()).willReturn("20_60100_A_T");
+        given(variantQueryService.findByRegionsAndComplexFiltersAfter(eq(oneRegion), any(), any(), any(), anyInt()))
+                .willReturn(Arrays.asList(variantMongo, variantMongo, variantMongo));
+        given(variantQueryService.toVariant(any())).willReturn(variant);
+
+        given(annotationMetadataService.findAllByOrderByCacheVersionDescVepVersionDesc())
+                .willReturn(Collections.singletonList(new AnnotationMetadata("78", "78")));
     }
 
     @Test
@@ -153,4 +194,149 @@ public class RegionWSServerV2Test {
     public void testGetVariantsByNonExistingRegions() throws URISyntaxException {
         testGetVariantsByRegionHelper("21:8000-9000,21:8000-9000", 0, HttpStatus.NO_CONTENT);
     }
+
+    @Test
+    public void testStreamVariantsByExistingRegions() throws Exception {
+        String[] lines = streamRegionHelper("20:60000-61000,20:61500-62500");
+
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            Variant variant = objectMapper.readValue(line, Variant.class);
+            assertEquals("20", variant.getChromosome());
+            assertEquals(60100, variant.getStart());
+            assertEquals(MAIN_ID, variant.getMainId());
+        }
+    }
+
+    @Test
+    public void testStreamVariantsByNonExistingRegion() {
+        assertEquals(0, streamRegionHelper("21:8000-9000").length);
+    }
+
+    private String[] streamRegionHelper(String testRegion) {
+        String url = "/v2/regions/" + testRegion + "/variants?species=mmusculus&assembly=grcm38";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.valueOf(RegionWSServerV2.NDJSON_MEDIA_TYPE)));
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers),
+                                                                String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.valueOf(RegionWSServerV2.NDJSON_MEDIA_TYPE)
+                            .includes(response.getHeaders().getContentType()));
+
+        if (response.getBody() == null) {
+            return new String[0];
+        }
+        return response.getBody().split("\n");
+    }
+
+    @Test
+    public void testGetVariantsWithoutCount() {
+        String url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&count=none";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(service, never()).countByRegionsAndComplexFilters(any(), any());
+
+        Integer totalElements = JsonPath.parse(response.getBody()).read("$['page']['totalElements']", Integer.class);
+        assertEquals(1, totalElements.intValue());
+    }
+
+    @Test
+    public void testPageTokenWithMoreResults() {
+        String url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&pageSize=2&pageToken=";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(variantQueryService).findByRegionsAndComplexFiltersAfter(any(), any(), any(), any(), eq(3));
+
+        assertEquals(2, JsonPath.parse(response.getBody()).read("$['_embedded']['variantList'].length()",
+                                                                 Integer.class).intValue());
+        assertTrue(JsonPath.parse(response.getBody()).read("$['_links']['next']['href']", String.class)
+                           .contains("pageToken="));
+    }
+
+    @Test
+    public void testPageTokenInLastPage() {
+        String url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&pageSize=3&pageToken=";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertEquals(3, JsonPath.parse(response.getBody()).read("$['_embedded']['variantList'].length()",
+                                                                 Integer.class).intValue());
+        assertEquals(3, JsonPath.parse(response.getBody()).read("$['page']['totalElements']", Integer.class)
+                                .intValue());
+        assertFalse(JsonPath.parse(response.getBody()).read("$['_links']", Map.class)
+                            .containsKey("next"));
+    }
+
+    @Test
+    public void testPageTokenIsNotCountedByDefault() {
+        String url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&pageToken=";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(service, never()).countByRegionsAndComplexFilters(any(), any());
+        verify(variantQueryService, never()).countByRegionsAndComplexFilters(any(), any(), anyLong());
+    }
+
+    @Test
+    public void testPageTokenWithUnknownAnnotationVersion() {
+        String url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&pageToken=" +
+                "&annot-vep-version=79&annot-vep-cache-version=79";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(variantQueryService, never()).findByRegionsAndComplexFiltersAfter(any(), any(), any(), any(), anyInt());
+
+        url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&pageToken=" +
+                "&annot-vep-version=78&annot-vep-cache-version=78";
+        response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetVariantsWithInvalidCountMode() {
+        String url = "/v2/regions/20:60000-62000/variants?species=mmusculus&assembly=grcm38&count=maybe";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetVariantsByRegionsInSeveralChromosomes() {
+        VariantWithSamplesAndAnnotation variantInChromosome1 = new VariantWithSamplesAndAnnotation("1", 1000, 1005,
+                "reference", "alternate", MAIN_ID);
+        VariantWithSamplesAndAnnotation variantInChromosome2 = new VariantWithSamplesAndAnnotation("2", 1000, 1005,
+                "reference", "alternate", MAIN_ID);
+        given(service.findByRegionsAndComplexFilters(argThat(regions -> isInChromosome(regions, "1")), any(), any(),
+                                                     any(), any()))
+                .willReturn(Collections.singletonList(variantInChromosome1));
+        given(service.countByRegionsAndComplexFilters(argThat(regions -> isInChromosome(regions, "1")), any()))
+                .willReturn(1L);
+        given(service.findByRegionsAndComplexFilters(argThat(regions -> isInChromosome(regions, "2")), any(), any(),
+                                                     any(), any()))
+                .willReturn(Collections.singletonList(variantInChromosome2));
+        given(service.countByRegionsAndComplexFilters(argThat(regions -> isInChromosome(regions, "2")), any()))
+                .willReturn(1L);
+
+        StringBuilder regionIds = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            regionIds.append(i == 0 ? "" : ",").append(i % 2 + 1).append(":").append(i * 1000).append("-")
+                     .append(i * 1000 + 500);
+        }
+
+        List<Variant> variants = regionWsHelper(regionIds.toString(), HttpStatus.OK);
+        assertEquals(2, variants.size());
+        assertEquals("1", variants.get(0).getChromosome());
+        assertEquals("2", variants.get(1).getChromosome());
+
+        String url = "/v2/regions/" + regionIds + "/variants?species=mmusculus&assembly=grcm38&pageNumber=1" +
+                "&pageSize=1";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("2", JsonPath.parse(response.getBody())
+                                  .read("$['_embedded']['variantList'][0]['chromosome']", String.class));
+        assertEquals(2, JsonPath.parse(response.getBody()).read("$['page']['totalElements']", Integer.class)
+                                .intValue());
+    }
+
+    private boolean isInChromosome(List<Region> regions, String chromosome) {
+        return regions != null && !regions.isEmpty() &&
+                regions.stream().allMatch(region -> region.getChromosome().equals(chromosome));
+    }
 }
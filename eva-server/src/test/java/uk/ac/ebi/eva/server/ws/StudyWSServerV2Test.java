@@ -19,12 +19,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 import uk.ac.ebi.eva.commons.mongodb.entities.projections.VariantStudySummary;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantStudySummaryService;
+import uk.ac.ebi.eva.lib.metadata.eva.StudyEvaproDBAdaptor;
+import uk.ac.ebi.eva.lib.metadata.shared.StudySearchIndex;
+import uk.ac.ebi.eva.lib.metadata.shared.StudySearchResult;
+import uk.ac.ebi.eva.lib.models.VariantStudy;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.eq;
 
 @RunWith(SpringRunner.class)
@@ -41,6 +49,9 @@ public class StudyWSServerV2Test {
     @MockBean
     private VariantStudySummaryService service;
 
+    @MockBean
+    private StudyEvaproDBAdaptor studyEvaproDBAdaptor;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,6 +73,12 @@ public class StudyWSServerV2Test {
 
         given(service.findAll(eq(PAGE_NUMBER), eq(PAGE_SIZE))).willReturn(studies);
         given(service.countAll()).willReturn(2);
+
+        VariantStudy foundStudy = new VariantStudy("Exome sequencing of a cohort", "PRJ1");
+        StudySearchResult searchResult = new StudySearchResult(
+                Collections.singletonList(foundStudy), 3,
+                Collections.singletonMap("species", Collections.singletonMap("Human", 3L)));
+        given(studyEvaproDBAdaptor.searchStudies(eq("exome"), anyMap(), eq(0), eq(1))).willReturn(searchResult);
     }
 
     @Test
@@ -83,4 +100,39 @@ public class StudyWSServerV2Test {
         assertEquals("studyId2", variantList.get(1).getStudyId());
         assertEquals("studyName2", variantList.get(1).getStudyName());
     }
+
+    @Test
+    public void testSearchStudies() {
+        String url = "/v2/studies/search?text=exome&species=Human&pageNumber=0&pageSize=1";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Configuration configuration = Configuration.defaultConfiguration()
+                .jsonProvider(new JacksonJsonProvider())
+                .mappingProvider(new JacksonMappingProvider(objectMapper))
+                .addOptions(Option.SUPPRESS_EXCEPTIONS);
+
+        List<VariantStudy> studies = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['_embedded']['variantStudyList']", new TypeRef<List<VariantStudy>>() {
+                });
+        assertEquals(1, studies.size());
+        assertEquals("PRJ1", studies.get(0).getId());
+
+        Map<String, Map<String, Long>> facets = JsonPath.using(configuration).parse(response.getBody())
+                .read("$['facets']", new TypeRef<Map<String, Map<String, Long>>>() {
+                });
+        assertEquals(3L, facets.get("species").get("Human").longValue());
+        assertEquals(3, JsonPath.parse(response.getBody()).<Integer>read("$['page']['totalElements']").intValue());
+        assertEquals(3, JsonPath.parse(response.getBody()).<Integer>read("$['page']['totalPages']").intValue());
+    }
+
+    @Test
+    public void testSearchStudiesWithInvalidPage() {
+        given(studyEvaproDBAdaptor.searchStudies(any(), anyMap(), eq(-1), eq(10)))
+                .willThrow(new IllegalArgumentException("The page number must not be negative"));
+
+        String url = "/v2/studies/search?pageNumber=-1&pageSize=10";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
 }
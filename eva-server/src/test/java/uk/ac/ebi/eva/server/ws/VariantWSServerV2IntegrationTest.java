@@ -53,7 +53,9 @@ import uk.ac.ebi.eva.lib.Profiles;
 import uk.ac.ebi.eva.server.configuration.MongoRepositoryTestConfiguration;
 
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static com.lordofthejars.nosqlunit.mongodb.MongoDbRule.MongoDbRuleBuilder.newMongoDbRule;
 import static org.junit.Assert.*;
@@ -235,4 +237,31 @@ public class VariantWSServerV2IntegrationTest {
         assertEquals(32889711, variantWithSamplesAndAnnotations.getStart());
     }
 
+    @Test
+    public void batchTestGetVariantsByVariantCoreStrings() {
+        String url = "/v2/variants/batch?species=mmusculus&assembly=grcm38";
+        List<String> variantCoreStrings = Arrays.asList("10:0:A:T", "20:60100:A:T", "20:60100:A:C");
+        ResponseEntity<String> response = restTemplate.postForEntity(url, variantCoreStrings, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        List<Map<String, Object>> results = JsonPath.parse(response.getBody())
+                                                    .read("$['_embedded']['variantLookupResultList']");
+        assertEquals(3, results.size());
+        for (int i = 0; i < variantCoreStrings.size(); i++) {
+            assertEquals(variantCoreStrings.get(i), results.get(i).get("variantCoreString"));
+        }
+        assertEquals(false, results.get(0).get("found"));
+        assertEquals(true, results.get(1).get("found"));
+        assertEquals(false, results.get(2).get("found"));
+        assertEquals("20", JsonPath.parse(response.getBody())
+                                   .read("$['_embedded']['variantLookupResultList'][1]['variant']['chromosome']"));
+    }
+
+    @Test
+    public void batchTestInvalidVariantCoreString() {
+        String url = "/v2/variants/batch?species=mmusculus&assembly=grcm38";
+        ResponseEntity<String> response = restTemplate.postForEntity(url, Arrays.asList("20:60100:A:T", "20:A:T"),
+                                                                     String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
 }
@@ -40,13 +40,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import uk.ac.ebi.eva.commons.core.models.Annotation;
+import uk.ac.ebi.eva.commons.core.models.pipeline.Variant;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantSourceEntryWithSampleNames;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
+import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertNull;
@@ -54,6 +59,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 
 @RunWith(SpringRunner.class)
@@ -75,6 +81,9 @@ public class VariantWSServerV2Test {
     @MockBean
     private VariantWithSamplesAndAnnotationsService service;
 
+    @MockBean
+    private VariantQueryService variantQueryService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -176,4 +185,30 @@ public class VariantWSServerV2Test {
         assertEquals("Please specify either both annotation VEP version and annotation VEP cache version, " +
                 "or neither", testForErrorHelper(url));
     }
+
+    @Test
+    public void batchTestMoreThanOneVariantFound() {
+        VariantMongo variantMongo = mock(VariantMongo.class);
+        given(variantMongo.getChromosome()).willReturn("20");
+        given(variantMongo.getStart()).willReturn(60100L);
+        given(variantMongo.getReference()).willReturn("A");
+        given(variantMongo.getAlternate()).willReturn("T");
+        given(variantQueryService.findByChromosomesAndStarts(any(), any()))
+                .willReturn(Arrays.asList(variantMongo, variantMongo));
+        given(variantQueryService.toVariant(any())).willReturn(new Variant("20", 60100, 60100, "A", "T"));
+
+        String url = "/v2/variants/batch?species=mmusculus&assembly=grcm38";
+        ResponseEntity<String> response = restTemplate.postForEntity(url, Arrays.asList("20:60100:A:T",
+                                                                                        "20:60100:A:C"),
+                                                                     String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        List<Map<String, Object>> results = JsonPath.parse(response.getBody())
+                                                    .read("$['_embedded']['variantLookupResultList']");
+        assertEquals(2, results.size());
+        assertEquals(false, results.get(0).get("found"));
+        assertEquals("More than one variant has been found.", results.get(0).get("error"));
+        assertEquals(false, results.get(1).get("found"));
+        assertNull(results.get(1).get("error"));
+    }
 }
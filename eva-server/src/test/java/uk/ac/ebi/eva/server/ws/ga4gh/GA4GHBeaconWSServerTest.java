@@ -30,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 import uk.ac.ebi.eva.commons.core.models.ws.VariantWithSamplesAndAnnotation;
 import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+import uk.ac.ebi.eva.server.ws.ga4gh.beaconv2.BeaconBloomFilter;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,6 +43,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -53,6 +56,9 @@ public class GA4GHBeaconWSServerTest {
     @MockBean
     private VariantWithSamplesAndAnnotationsService service;
 
+    @MockBean
+    private BeaconBloomFilter beaconBloomFilter;
+
     @Before
     public void setUp() throws Exception {
         VariantWithSamplesAndAnnotation variant = new VariantWithSamplesAndAnnotation("1", 1000, 1005, "reference",
@@ -61,6 +67,7 @@ public class GA4GHBeaconWSServerTest {
 
         given(service.findByChromosomeAndStartAndAltAndStudyIn(eq("1"), anyLong(), any(), any(), any()))
                 .willReturn(variantEntities);
+        given(beaconBloomFilter.mightContain(any(), any(), anyLong(), any(), any())).willReturn(true);
     }
 
     @Test
@@ -73,6 +80,14 @@ public class GA4GHBeaconWSServerTest {
         assertFalse(testBeaconHelper("2", 2000, "alternateOther", new ArrayList<>()));
     }
 
+    @Test
+    public void testAlleleNotInBloomFilterIsNotQueried() throws Exception {
+        given(beaconBloomFilter.mightContain(any(), eq("1"), eq(1000L), eq("alternate"), any())).willReturn(false);
+
+        assertFalse(testBeaconHelper("1", 1000, "alternate", new ArrayList<>()));
+        verify(service, never()).findByChromosomeAndStartAndAltAndStudyIn(any(), anyLong(), any(), any(), any());
+    }
+
     private boolean testBeaconHelper(String chromosome, long start, String allele, List<String> datasetIds) {
         String url = String.format("/v1/ga4gh/beacon?referenceName=%s&start=%d&allele=%s&datasetIds=%s",
                 chromosome,
@@ -94,6 +94,13 @@ public class GA4GHVariantWSServerTest {
         assertEquals(0, gaSearchVariantsResponse.getVariants().size());
     }
 
+    @Test
+    public void testGetVariantsWithInvalidCountMode() {
+        String url = "/v1/ga4gh/variants/search?referenceName=1&start=500&end=2000&count=maybe";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     private GASearchVariantsResponse testVariantWsHelper(String chromosome, long start, long end,
                                                          List<String> variantSetIds, String pageToken, int pageSize) {
 
@@ -0,0 +1,154 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import uk.ac.ebi.eva.server.services.BeaconAllele;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class BeaconBloomFilterTest {
+
+    private static final String DATABASE = "eva_hsapiens_grch37";
+
+    private static final String STUDY = "PRJEB1";
+
+    private static final String OTHER_STUDY = "PRJEB2";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private VariantQueryService variantQueryService;
+
+    @Before
+    public void setUp() {
+        variantQueryService = mock(VariantQueryService.class);
+        Map<String, Long> countsByStudy = new HashMap<>();
+        countsByStudy.put(STUDY, 1L);
+        countsByStudy.put(OTHER_STUDY, 1L);
+        given(variantQueryService.countByStudy()).willReturn(countsByStudy);
+        given(variantQueryService.streamBeaconAlleles()).willAnswer(invocation -> Stream.of(
+                new BeaconAllele("1", 1000, "A", Collections.singleton(STUDY)),
+                new BeaconAllele("2", 2000, "T", new HashSet<>(Arrays.asList(STUDY, OTHER_STUDY)))));
+    }
+
+    @Test
+    public void everythingMightBeContainedWithoutFilters() {
+        BeaconBloomFilter bloomFilter = createBloomFilter(true);
+        assertTrue(bloomFilter.mightContain(DATABASE, "3", 3000, "G", null));
+    }
+
+    @Test
+    public void everythingMightBeContainedWhenDisabled() throws IOException {
+        BeaconBloomFilter bloomFilter = createBloomFilter(false);
+        bloomFilter.build(DATABASE);
+        assertTrue(bloomFilter.mightContain(DATABASE, "3", 3000, "G", null));
+    }
+
+    @Test
+    public void allelesOfAnyStudy() throws IOException {
+        BeaconBloomFilter bloomFilter = createBloomFilter(true);
+        bloomFilter.build(DATABASE);
+
+        assertTrue(bloomFilter.mightContain(DATABASE, "1", 1000, "A", null));
+        assertTrue(bloomFilter.mightContain(DATABASE, "2", 2000, "T", Collections.emptyList()));
+        assertFalse(bloomFilter.mightContain(DATABASE, "1", 1000, "C", null));
+        assertFalse(bloomFilter.mightContain(DATABASE, "1", 1001, "A", null));
+        assertTrue(bloomFilter.mightContain("eva_hsapiens_grch38", "1", 1000, "C", null));
+    }
+
+    @Test
+    public void allelesOfKnownStudies() throws IOException {
+        BeaconBloomFilter bloomFilter = createBloomFilter(true);
+        bloomFilter.build(DATABASE);
+
+        assertTrue(bloomFilter.mightContain(DATABASE, "1", 1000, "A", Collections.singletonList(STUDY)));
+        assertFalse(bloomFilter.mightContain(DATABASE, "1", 1000, "A", Collections.singletonList(OTHER_STUDY)));
+        assertTrue(bloomFilter.mightContain(DATABASE, "1", 1000, "A", Arrays.asList(OTHER_STUDY, STUDY)));
+        assertTrue(bloomFilter.mightContain(DATABASE, "2", 2000, "T", Collections.singletonList(OTHER_STUDY)));
+    }
+
+    @Test
+    public void studyWithoutFilterMightContainAnything() throws IOException {
+        BeaconBloomFilter bloomFilter = createBloomFilter(true);
+        bloomFilter.build(DATABASE);
+
+        assertTrue(bloomFilter.mightContain(DATABASE, "3", 3000, "G", Collections.singletonList("PRJEB3")));
+    }
+
+    @Test
+    public void filtersAreSavedAndLoaded() throws IOException {
+        createBloomFilter(true).build(DATABASE);
+
+        BeaconBloomFilter loadedBloomFilter = createBloomFilter(true);
+        assertTrue(loadedBloomFilter.load(DATABASE));
+        assertTrue(loadedBloomFilter.mightContain(DATABASE, "1", 1000, "A", Collections.singletonList(STUDY)));
+        assertFalse(loadedBloomFilter.mightContain(DATABASE, "1", 1000, "A",
+                                                   Collections.singletonList(OTHER_STUDY)));
+        assertFalse(loadedBloomFilter.mightContain(DATABASE, "1", 1000, "C", null));
+    }
+
+    @Test
+    public void missingFileIsNotLoaded() throws IOException {
+        BeaconBloomFilter bloomFilter = createBloomFilter(true);
+        assertFalse(bloomFilter.load(DATABASE));
+    }
+
+    @Test
+    public void fileOfAnotherVersionIsNotLoaded() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve(DATABASE + ".bloom");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(path))) {
+            output.writeInt(Integer.MAX_VALUE);
+        }
+
+        BeaconBloomFilter bloomFilter = createBloomFilter(true);
+        assertFalse(bloomFilter.load(DATABASE));
+        assertTrue(bloomFilter.mightContain(DATABASE, "1", 1000, "C", null));
+    }
+
+    private BeaconBloomFilter createBloomFilter(boolean enabled) {
+        BeaconBloomFilter bloomFilter = new BeaconBloomFilter();
+        ReflectionTestUtils.setField(bloomFilter, "variantQueryService", variantQueryService);
+        ReflectionTestUtils.setField(bloomFilter, "enabled", enabled);
+        ReflectionTestUtils.setField(bloomFilter, "directory", temporaryFolder.getRoot().getAbsolutePath());
+        ReflectionTestUtils.setField(bloomFilter, "falsePositiveProbability", 0.01);
+        return bloomFilter;
+    }
+}
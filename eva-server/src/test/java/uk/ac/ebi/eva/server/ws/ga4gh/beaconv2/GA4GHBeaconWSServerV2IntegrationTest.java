@@ -0,0 +1,218 @@
+/*
+ * European Variation Archive (EVA) - Open-access database of all types of genetic
+ * variation data from all species
+ *
+ * Copyright 2019 EMBL - European Bioinformatics Institute
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.eva.server.ws.ga4gh.beaconv2;
+
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+import com.lordofthejars.nosqlunit.mongodb.MongoDbRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleRequest;
+import uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleResponse;
+import uk.ac.ebi.eva.commons.beacon.models.BeaconDatasetAlleleResponse;
+import uk.ac.ebi.eva.commons.beacon.models.Chromosome;
+import uk.ac.ebi.eva.lib.Profiles;
+import uk.ac.ebi.eva.server.configuration.MongoRepositoryTestConfiguration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.lordofthejars.nosqlunit.mongodb.MongoDbRule.MongoDbRuleBuilder.newMongoDbRule;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import({MongoRepositoryTestConfiguration.class})
+@UsingDataSet(locations = {
+        "/test-data/variants.json",
+        "/test-data/files.json"
+})
+@ActiveProfiles(Profiles.TEST_MONGO_FACTORY)
+public class GA4GHBeaconWSServerV2IntegrationTest {
+
+    private static final String TEST_DB = "test-db";
+
+    private static final String GONL_DATASET = "PRJEB5829_ERZ019958";
+
+    private static final String DBSNP_DATASET = "PRJX00001_ERZX00072";
+
+    @Rule
+    public MongoDbRule mongoDbRule = newMongoDbRule().defaultSpringMongoDb(TEST_DB);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BeaconDatasetCatalogue beaconDatasetCatalogue;
+
+    @Before
+    public void setUp() {
+        // The catalogue may have been read before the test data was loaded
+        beaconDatasetCatalogue.refresh();
+    }
+
+    @Test
+    public void existsForStartWithoutEnd() {
+        assertTrue(query(queryUrl("20", "A", "T").queryParam("start", 60100)).isExists());
+        assertFalse(query(queryUrl("20", "A", "G").queryParam("start", 60100)).isExists());
+        assertFalse(query(queryUrl("20", "A", "T").queryParam("start", 60101)).isExists());
+    }
+
+    @Test
+    public void existsForStartAndEnd() {
+        assertTrue(query(queryUrl("X", "G", "A").queryParam("start", 1000014)
+                                                .queryParam("end", 1000014)).isExists());
+        assertFalse(query(queryUrl("X", "G", "A").queryParam("start", 1000014)
+                                                 .queryParam("end", 1000015)).isExists());
+    }
+
+    @Test
+    public void existsForRanges() {
+        assertTrue(query(queryUrl("20", "C", "G").queryParam("startMin", 60000)
+                                                 .queryParam("startMax", 63000)
+                                                 .queryParam("endMin", 60000)
+                                                 .queryParam("endMax", 63000)).isExists());
+        assertFalse(query(queryUrl("20", "C", "G").queryParam("startMin", 60000)
+                                                  .queryParam("startMax", 61000)
+                                                  .queryParam("endMin", 60000)
+                                                  .queryParam("endMax", 63000)).isExists());
+    }
+
+    @Test
+    public void datasetResponsesOfHits() {
+        BeaconAlleleResponse response = query(queryUrl("20", "A", "T").queryParam("start", 60100)
+                                                                      .queryParam("includeDatasetResponses", "HIT"));
+        assertTrue(response.isExists());
+
+        Map<String, Boolean> datasets = getDatasetResponses(response);
+        assertEquals(2, datasets.size());
+        assertTrue(datasets.get(GONL_DATASET));
+        assertTrue(datasets.get(DBSNP_DATASET));
+    }
+
+    @Test
+    public void datasetResponsesOfHitsAndMisses() {
+        BeaconAlleleResponse response = query(queryUrl("20", "C", "G").queryParam("start", 62300)
+                                                                      .queryParam("includeDatasetResponses", "ALL"));
+        assertTrue(response.isExists());
+
+        Map<String, Boolean> datasets = getDatasetResponses(response);
+        assertEquals(2, datasets.size());
+        assertFalse(datasets.get(GONL_DATASET));
+        assertTrue(datasets.get(DBSNP_DATASET));
+    }
+
+    @Test
+    public void batchOfQueriesInSeveralChromosomes() {
+        BeaconAlleleRequest startOnly = new BeaconAlleleRequest()
+                .referenceName(Chromosome.fromValue("20"))
+                .assemblyId("GRCh37")
+                .referenceBases("A")
+                .alternateBases("T")
+                .start(60100L)
+                .includeDatasetResponses(BeaconAlleleRequest.IncludeDatasetResponsesEnum.HIT);
+        BeaconAlleleRequest range = new BeaconAlleleRequest()
+                .referenceName(Chromosome.fromValue("20"))
+                .assemblyId("GRCh37")
+                .referenceBases("C")
+                .alternateBases("G")
+                .startMin(62000)
+                .startMax(63000)
+                .endMin(62000)
+                .endMax(63000);
+        BeaconAlleleRequest missing = new BeaconAlleleRequest()
+                .referenceName(Chromosome.fromValue("20"))
+                .assemblyId("GRCh37")
+                .referenceBases("C")
+                .alternateBases("T")
+                .start(62300L);
+        BeaconAlleleRequest otherChromosome = new BeaconAlleleRequest()
+                .referenceName(Chromosome.X)
+                .assemblyId("GRCh37")
+                .referenceBases("G")
+                .alternateBases("A")
+                .start(1000014L);
+
+        ResponseEntity<List<BeaconAlleleResponse>> response = restTemplate.exchange(
+                "/v2/beacon/query/batch", HttpMethod.POST,
+                new HttpEntity<>(Arrays.asList(startOnly, range, missing, otherChromosome)),
+                new ParameterizedTypeReference<List<BeaconAlleleResponse>>() {
+                });
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        List<BeaconAlleleResponse> responses = response.getBody();
+        assertEquals(4, responses.size());
+        assertTrue(responses.get(0).isExists());
+        Map<String, Boolean> datasets = getDatasetResponses(responses.get(0));
+        assertEquals(2, datasets.size());
+        assertTrue(datasets.get(GONL_DATASET));
+        assertTrue(datasets.get(DBSNP_DATASET));
+        assertTrue(responses.get(1).isExists());
+        assertNull(responses.get(1).getDatasetAlleleResponses());
+        assertFalse(responses.get(2).isExists());
+        assertTrue(responses.get(3).isExists());
+    }
+
+    private UriComponentsBuilder queryUrl(String chromosome, String reference, String alternate) {
+        return UriComponentsBuilder.fromUriString("")
+                                   .path("/v2/beacon/query")
+                                   .queryParam("referenceName", chromosome)
+                                   .queryParam("assemblyId", "GRCh37")
+                                   .queryParam("referenceBases", reference)
+                                   .queryParam("alternateBases", alternate);
+    }
+
+    private BeaconAlleleResponse query(UriComponentsBuilder url) {
+        ResponseEntity<List<BeaconAlleleResponse>> response = restTemplate.exchange(
+                url.build().toString(), HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<BeaconAlleleResponse>>() {
+                });
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        return response.getBody().get(0);
+    }
+
+    private Map<String, Boolean> getDatasetResponses(BeaconAlleleResponse response) {
+        Map<String, Boolean> datasets = new HashMap<>();
+        for (BeaconDatasetAlleleResponse datasetResponse : response.getDatasetAlleleResponses()) {
+            datasets.put(datasetResponse.getDatasetId(), datasetResponse.isExists());
+        }
+        return datasets;
+    }
+}
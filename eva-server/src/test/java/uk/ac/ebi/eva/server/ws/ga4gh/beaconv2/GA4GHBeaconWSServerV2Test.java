@@ -27,8 +27,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -38,10 +37,10 @@ import uk.ac.ebi.eva.commons.beacon.models.BeaconAlleleResponse;
 import uk.ac.ebi.eva.commons.beacon.models.Chromosome;
 import uk.ac.ebi.eva.commons.core.models.Region;
 import uk.ac.ebi.eva.commons.core.models.VariantType;
-import uk.ac.ebi.eva.commons.mongodb.entities.VariantMongo;
 import uk.ac.ebi.eva.commons.mongodb.filter.FilterBuilder;
 import uk.ac.ebi.eva.commons.mongodb.filter.VariantRepositoryFilter;
-import uk.ac.ebi.eva.commons.mongodb.services.VariantWithSamplesAndAnnotationsService;
+import uk.ac.ebi.eva.server.services.BeaconDatasetHits;
+import uk.ac.ebi.eva.server.services.VariantQueryService;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,9 +48,15 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -61,29 +66,47 @@ public class GA4GHBeaconWSServerV2Test {
     private TestRestTemplate restTemplate;
 
     @MockBean
-    private VariantWithSamplesAndAnnotationsService service;
+    private VariantQueryService variantQueryService;
+
+    @MockBean
+    private BeaconBloomFilter beaconBloomFilter;
 
     @Before
     public void setup() throws Exception {
-        VariantMongo variantMongo = new VariantMongo(null, "X", 100470026, 100470026, 1, "G", "A");
-        List<VariantMongo> variantMongoList = Collections.singletonList(variantMongo);
         Region startRange = new Region("X", 100470026L, 100470026L);
         Region endRange = new Region("X", 100470026L, 100470026L);
         List<VariantRepositoryFilter> variantRepositoryFilters = new FilterBuilder().getBeaconFilters("G", "A",
                 null, Arrays.asList("PRJEB7218"));
 
-        Pageable pageable = new PageRequest(0, 1);
-        given(service.findByRegionAndOtherBeaconFilters(eq(startRange), eq(endRange), eq(variantRepositoryFilters),
-                eq(pageable))).willReturn(variantMongoList);
-        given(service.countByRegionAndOtherBeaconFilters(eq(startRange), eq(endRange), eq(variantRepositoryFilters)))
-                .willReturn(1L);
+        given(variantQueryService.existsByBeaconRegionAndFilters(eq(startRange), eq(endRange),
+                eq(variantRepositoryFilters))).willReturn(true);
 
         variantRepositoryFilters = new FilterBuilder().getBeaconFilters("G", null,
                 VariantType.SNV, Arrays.asList("PRJEB7218"));
-        given(service.findByRegionAndOtherBeaconFilters(eq(startRange), eq(endRange), eq(variantRepositoryFilters),
-                eq(pageable))).willReturn(variantMongoList);
-        given(service.countByRegionAndOtherBeaconFilters(eq(startRange), eq(endRange), eq(variantRepositoryFilters)))
-                .willReturn(1L);
+        given(variantQueryService.existsByBeaconRegionAndFilters(eq(startRange), eq(endRange),
+                eq(variantRepositoryFilters))).willReturn(true);
+
+        given(beaconBloomFilter.mightContain(any(), any(), anyLong(), any(), any())).willReturn(true);
+    }
+
+    @Test
+    public void testAlleleNotInBloomFilterIsNotQueried() {
+        given(beaconBloomFilter.mightContain(any(), eq("X"), eq(100470026L), eq("A"), any())).willReturn(false);
+
+        String url = UriComponentsBuilder.fromUriString("")
+                .path("/v2/beacon/query")
+                .queryParam("referenceName", Chromosome.X)
+                .queryParam("referenceBases", "G")
+                .queryParam("assemblyId", "GRCh37")
+                .queryParam("alternateBases", "A")
+                .queryParam("start", 100470026L)
+                .queryParam("end", 100470026L)
+                .queryParam("datasetIds", "PRJEB7218")
+                .build().toString();
+        BeaconAlleleResponse response = testBeaconHelper(url).getBody().get(0);
+        assertFalse(response.isExists());
+        assertNull(response.getError());
+        verify(variantQueryService, never()).existsByBeaconRegionAndFilters(any(), any(), any());
     }
 
     @Test
@@ -201,4 +224,48 @@ public class GA4GHBeaconWSServerV2Test {
                 .build().toString();
         assertFalse(testBeaconHelper(url).getBody().get(0).isExists());
     }
+
+    @Test
+    public void testBatch() {
+        BeaconDatasetHits hit = new BeaconDatasetHits(true, Collections.singleton("PRJEB7218_ERZ1"),
+                Collections.emptyMap());
+        BeaconDatasetHits miss = new BeaconDatasetHits(false, Collections.emptySet(), Collections.emptyMap());
+        given(variantQueryService.findBeaconDatasetHits(anyList())).willReturn(Arrays.asList(hit, miss));
+
+        BeaconAlleleRequest existing = new BeaconAlleleRequest()
+                .referenceName(Chromosome.X)
+                .assemblyId("GRCh37")
+                .referenceBases("G")
+                .alternateBases("A")
+                .start(100470026L)
+                .datasetIds(Arrays.asList("PRJEB7218"));
+        BeaconAlleleRequest invalid = new BeaconAlleleRequest()
+                .referenceName(Chromosome.X)
+                .assemblyId("GRCh37")
+                .referenceBases("G")
+                .start(100470026L);
+        BeaconAlleleRequest nonExisting = new BeaconAlleleRequest()
+                .referenceName(Chromosome.Y)
+                .assemblyId("GRCh37")
+                .referenceBases("G")
+                .alternateBases("A")
+                .start(0L);
+
+        ResponseEntity<List<BeaconAlleleResponse>> response = restTemplate.exchange(
+                "/v2/beacon/query/batch", HttpMethod.POST,
+                new HttpEntity<>(Arrays.asList(existing, invalid, null, nonExisting)),
+                new ParameterizedTypeReference<List<BeaconAlleleResponse>>() {
+                });
+        assertEquals(200, response.getStatusCodeValue());
+
+        List<BeaconAlleleResponse> responses = response.getBody();
+        assertEquals(4, responses.size());
+        assertTrue(responses.get(0).isExists());
+        assertNull(responses.get(0).getError());
+        assertEquals("Either the alternate bases or the variant type is required",
+                responses.get(1).getError().getErrorMessage());
+        assertEquals("Please provide a query instead of null", responses.get(2).getError().getErrorMessage());
+        assertFalse(responses.get(3).isExists());
+        assertEquals(Chromosome.Y, responses.get(3).getAlleleRequest().getReferenceName());
+    }
 }